@@ -8,11 +8,18 @@ dependencies {
 	// The api subproject needs access to the model subproject
 	implementation(projects.model)
 
+	// The tracing subproject propagates the trace context to the provider
+	implementation(projects.tracing)
+
 	// Spring Boot dependencies
 	implementation(local.springboot.starter)
     implementation(local.springboot.starter.restclient)
     implementation(local.springboot.starter.webmvc)
 
+	// Actuator and Micrometer for exposing metrics to Prometheus
+	implementation(local.springboot.starter.actuator)
+	runtimeOnly(local.micrometer.registry.prometheus)
+
 	// Springdoc OpenAPI for providing Swagger documentation
 	implementation(local.springdoc.openapi.starter.webmvc)
 
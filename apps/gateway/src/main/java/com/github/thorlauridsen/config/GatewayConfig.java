@@ -1,11 +1,14 @@
 package com.github.thorlauridsen.config;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
  * Configuration properties for the gateway subproject.
- * Holds the URL of the target service.
+ * Holds the URL of the target service and the settings
+ * for how travel details are fetched from the target service.
  */
 @Data
 @ConfigurationProperties(prefix = "gateway.settings")
@@ -15,4 +18,178 @@ public class GatewayConfig {
      * URL of the target service.
      */
     private final String targetUrl;
+
+    /**
+     * Settings for the HTTP client used to call the target service.
+     */
+    private final Client client;
+
+    /**
+     * Deadline for fetching travel details asynchronously.
+     * Legs which have not completed when the deadline passes are cancelled.
+     */
+    private final Duration timeout;
+
+    /**
+     * Number of elements requested per page from the paginated endpoints of the target service.
+     * Lists are fetched one page at a time using keyset pagination, so the size of a single
+     * response from the target service stays bounded. The pages are fetched sequentially and
+     * collected into the full list, so this neither bounds the memory used for a list nor
+     * reduces the time to fetch it. 0 fetches each list in a single request.
+     */
+    private final int pageSize;
+
+    /**
+     * Number of matches requested per page from the search endpoints of the target service.
+     * Searches always follow the cursor until the last page, so this is the maximum page size
+     * of the target service, and a search with a normal number of matches fits in a single request.
+     * 0 uses the default page size of the target service.
+     */
+    private final int searchPageSize;
+
+    /**
+     * Settings for hedged requests.
+     */
+    private final Hedge hedge;
+
+    /**
+     * Settings for the response cache.
+     */
+    private final Cache cache;
+
+    /**
+     * Settings for conditional requests to the target service.
+     */
+    private final Conditional conditional;
+
+    /**
+     * Settings for the adaptive concurrency limiter.
+     */
+    private final Limiter limiter;
+
+    /**
+     * Settings for the circuit breaker and fallback of each leg.
+     */
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Configuration for the HTTP client used to call the target service.
+     * The connection pool of the JDK {@link HttpClient} can only be configured through system properties
+     * which are read once per JVM, so the pool settings are copied into them before the application context
+     * is created, see {@link HttpClientPoolConfigurer}. They apply to every JDK {@link HttpClient} in the JVM,
+     * and the gateway only calls a single target service, so they effectively apply per route.
+     *
+     * @param httpVersion    Preferred HTTP version, HTTP/2 falls back to HTTP/1.1 if not supported.
+     * @param connectTimeout Timeout for establishing a connection.
+     * @param readTimeout    Timeout for reading a response.
+     * @param poolSize       Maximum number of idle connections kept in the pool, 0 means unlimited.
+     * @param idleTimeout    Duration after which idle connections are evicted from the pool.
+     */
+    public record Client(
+            HttpClient.Version httpVersion,
+            Duration connectTimeout,
+            Duration readTimeout,
+            int poolSize,
+            Duration idleTimeout
+    ) {
+    }
+
+    /**
+     * Configuration for hedged requests.
+     * A hedge is a second copy of a request which is sent when the first
+     * request has been running for longer than a percentile of the recent latency.
+     *
+     * @param enabled     Whether hedged requests are enabled.
+     * @param percentile  Percentile of the recent latency after which a hedge is sent.
+     * @param windowSize  Number of recent latency samples kept per path.
+     * @param minSamples  Minimum number of samples required before hedging a path.
+     * @param minDelay    Minimum delay before a hedge is sent.
+     * @param budgetRatio Maximum number of hedges per request, between 0 and 1.
+     * @param maxBurst    Maximum number of hedges which can be sent in a burst.
+     */
+    public record Hedge(
+            boolean enabled,
+            double percentile,
+            int windowSize,
+            int minSamples,
+            Duration minDelay,
+            double budgetRatio,
+            int maxBurst
+    ) {
+    }
+
+    /**
+     * Configuration for the in-memory cache of responses from the target service.
+     *
+     * @param enabled              Whether the response cache is enabled.
+     * @param ttl                  Duration for which a cached response is fresh.
+     * @param staleWhileRevalidate Duration after the ttl for which a stale response is
+     *                             served while it is revalidated in the background.
+     * @param maxElements          Maximum total number of elements in the cached responses.
+     */
+    public record Cache(
+            boolean enabled,
+            Duration ttl,
+            Duration staleWhileRevalidate,
+            int maxElements
+    ) {
+    }
+
+    /**
+     * Configuration for conditional requests to the target service.
+     * The last list received with an ETag is kept per request, and the ETag is sent as
+     * If-None-Match on the next request so that an unchanged list is not downloaded again.
+     *
+     * @param enabled     Whether conditional requests are enabled.
+     * @param maxElements Maximum total number of elements in the kept lists,
+     *                    the least recently used lists are evicted.
+     */
+    public record Conditional(
+            boolean enabled,
+            int maxElements
+    ) {
+    }
+
+    /**
+     * Configuration for the adaptive concurrency limit of requests to the target service per path.
+     *
+     * @param enabled          Whether the limiter is enabled.
+     * @param initialLimit     Limit before any request to a path has completed.
+     * @param minLimit         Lowest limit the limiter can back off to.
+     * @param maxLimit         Highest limit the limiter can grow to.
+     * @param backoffRatio     Ratio the limit is multiplied by when a request fails or is too slow.
+     * @param latencyThreshold Duration after which a successful request is treated as too slow.
+     * @param maxWait          Maximum duration a request waits for a slot before it is rejected.
+     */
+    public record Limiter(
+            boolean enabled,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double backoffRatio,
+            Duration latencyThreshold,
+            Duration maxWait
+    ) {
+    }
+
+    /**
+     * Configuration for the circuit breaker of requests to the target service per path.
+     * While a circuit is open, the leg is served from the last successfully fetched list.
+     *
+     * @param enabled          Whether the circuit breaker and fallback are enabled.
+     *                         If disabled, a failing leg fails the travel details.
+     * @param failureThreshold Number of consecutive failures after which the circuit opens.
+     * @param openDuration     Duration the circuit stays open before a trial request is sent.
+     * @param fallbackMaxAge   Maximum age of a last successfully fetched list served as a fallback.
+     * @param fallbackMaxSize  Maximum number of last successfully fetched lists to keep.
+     *                         Each search has its own list, so the least recently used lists are evicted.
+     */
+    public record CircuitBreaker(
+            boolean enabled,
+            int failureThreshold,
+            Duration openDuration,
+            Duration fallbackMaxAge,
+            int fallbackMaxSize
+    ) {
+    }
 }
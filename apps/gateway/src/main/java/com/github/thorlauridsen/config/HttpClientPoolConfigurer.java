@@ -0,0 +1,53 @@
+package com.github.thorlauridsen.config;
+
+import java.net.http.HttpClient;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Configures the connection pool of the JDK {@link HttpClient} from {@link GatewayConfig.Client}.
+ * <p>
+ * The JDK reads the size and idle timeout of the pool from system properties once,
+ * when the first {@link HttpClient} is created, and they apply to every {@link HttpClient} in the JVM.
+ * The settings are therefore bound as soon as the environment has been prepared,
+ * before any bean is created, and copied into the jdk.httpclient system properties.
+ * The listener is registered in META-INF/spring.factories, so it also runs for test contexts.
+ */
+@Slf4j
+public class HttpClientPoolConfigurer implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    static final String POOL_SIZE = "jdk.httpclient.connectionPoolSize";
+    static final String KEEP_ALIVE_TIMEOUT = "jdk.httpclient.keepalive.timeout";
+    static final String KEEP_ALIVE_TIMEOUT_H2 = "jdk.httpclient.keepalive.timeout.h2";
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        configure(event.getEnvironment());
+    }
+
+    /**
+     * Bind the client settings of the environment and copy the pool settings into the system properties.
+     * Nothing is changed if the client settings are not configured.
+     *
+     * @param environment The environment to bind the client settings from.
+     */
+    static void configure(ConfigurableEnvironment environment) {
+        Binder.get(environment)
+                .bind("gateway.settings.client", GatewayConfig.Client.class)
+                .ifBound(client -> {
+                    if (client.idleTimeout() == null) {
+                        return;
+                    }
+                    val idleSeconds = String.valueOf(client.idleTimeout().toSeconds());
+                    log.info("Configuring HttpClient pool with {} connections evicted after {}s",
+                            client.poolSize(), idleSeconds);
+                    System.setProperty(POOL_SIZE, String.valueOf(client.poolSize()));
+                    System.setProperty(KEEP_ALIVE_TIMEOUT, idleSeconds);
+                    System.setProperty(KEEP_ALIVE_TIMEOUT_H2, idleSeconds);
+                });
+    }
+}
@@ -4,9 +4,13 @@ import com.github.thorlauridsen.model.TravelDetails;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static com.github.thorlauridsen.controller.BaseEndpoint.TRAVEL_BASE_ENDPOINT;
 
@@ -22,33 +26,122 @@ public interface ITravelController {
 
     /**
      * Retrieve travel details asynchronously.
+     * The optional filters are pushed down to the search endpoints of the target service.
      *
+     * @param origin      Optional origin of the flights.
+     * @param destination Optional destination of the flights.
+     * @param airline     Optional airline of the flights.
+     * @param location    Optional location of the hotels and rental cars.
+     * @param minRating   Optional minimum rating of the hotels.
+     * @param company     Optional company of the rental cars.
      * @return {@link ResponseEntity} with {@link TravelDetails}.
      */
     @GetMapping("/async")
     @Operation(
             summary = "Retrieve travel details",
-            description = "Retrieve travel details"
+            description = "Retrieve travel details, optionally filtered by origin, destination, airline, "
+                    + "location, minimum rating and company"
     )
     @ApiResponse(
             responseCode = "200",
             description = "Successfully retrieved travel details"
     )
-    ResponseEntity<TravelDetails> getAsync() throws InterruptedException;
+    ResponseEntity<TravelDetails> getAsync(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) String airline,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String company
+    ) throws InterruptedException;
 
     /**
      * Retrieve travel details synchronously.
+     * The optional filters are pushed down to the search endpoints of the target service.
      *
+     * @param origin      Optional origin of the flights.
+     * @param destination Optional destination of the flights.
+     * @param airline     Optional airline of the flights.
+     * @param location    Optional location of the hotels and rental cars.
+     * @param minRating   Optional minimum rating of the hotels.
+     * @param company     Optional company of the rental cars.
      * @return {@link ResponseEntity} with {@link TravelDetails}.
      */
     @GetMapping("/sync")
     @Operation(
             summary = "Retrieve travel details",
-            description = "Retrieve travel details"
+            description = "Retrieve travel details, optionally filtered by origin, destination, airline, "
+                    + "location, minimum rating and company"
     )
     @ApiResponse(
             responseCode = "200",
             description = "Successfully retrieved travel details"
     )
-    ResponseEntity<TravelDetails> getSync();
+    ResponseEntity<TravelDetails> getSync(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) String airline,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String company
+    ) throws InterruptedException;
+
+    /**
+     * Retrieve travel details with a single request to the aggregate endpoint of the target service.
+     *
+     * @return {@link ResponseEntity} with {@link TravelDetails}.
+     */
+    @GetMapping("/aggregate")
+    @Operation(
+            summary = "Retrieve travel details",
+            description = "Retrieve travel details with a single request to the aggregate endpoint of the target service"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved travel details"
+    )
+    @ApiResponse(
+            responseCode = "503",
+            description = "The request was rejected by the circuit breaker or concurrency limiter"
+    )
+    @ApiResponse(
+            responseCode = "504",
+            description = "The aggregate endpoint did not respond within the timeout"
+    )
+    ResponseEntity<TravelDetails> getAggregate() throws InterruptedException;
+
+    /**
+     * Stream travel details asynchronously as newline delimited JSON.
+     * Each section is written as soon as the corresponding leg completes.
+     *
+     * @return {@link ResponseBodyEmitter} which writes one section per line.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Stream travel details",
+            description = "Stream travel details as newline delimited JSON with one section per leg"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully streamed travel details"
+    )
+    ResponseBodyEmitter getStream();
+
+    /**
+     * Stream travel details asynchronously as Server-Sent Events.
+     * An event is sent for each leg as soon as it completes, named after the leg,
+     * followed by a complete event with the status of each leg.
+     *
+     * @return {@link SseEmitter} which sends one event per leg and a complete event.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream travel details as events",
+            description = "Stream travel details as Server-Sent Events with one event per leg and a complete event"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully streamed travel details"
+    )
+    SseEmitter getEvents();
 }
@@ -1,11 +1,24 @@
 package com.github.thorlauridsen.controller;
 
 import com.github.thorlauridsen.model.TravelDetails;
+import com.github.thorlauridsen.model.TravelSearch;
+import com.github.thorlauridsen.model.TravelSection;
+import com.github.thorlauridsen.model.TravelSummary;
 import com.github.thorlauridsen.service.TravelService;
+import com.github.thorlauridsen.tracing.Tracing;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Travel controller class.
@@ -16,6 +29,7 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @RequiredArgsConstructor
+@Slf4j
 public class TravelController implements ITravelController {
 
     private final TravelService travelService;
@@ -23,22 +37,163 @@ public class TravelController implements ITravelController {
     /**
      * Retrieves travel details asynchronously.
      *
+     * @param origin      Optional origin of the flights.
+     * @param destination Optional destination of the flights.
+     * @param airline     Optional airline of the flights.
+     * @param location    Optional location of the hotels and rental cars.
+     * @param minRating   Optional minimum rating of the hotels.
+     * @param company     Optional company of the rental cars.
      * @return {@link ResponseEntity} with {@link TravelDetails}.
      */
     @Override
-    public ResponseEntity<TravelDetails> getAsync() throws InterruptedException {
-        val details = travelService.getAsync();
+    public ResponseEntity<TravelDetails> getAsync(
+            String origin,
+            String destination,
+            String airline,
+            String location,
+            Double minRating,
+            String company
+    ) throws InterruptedException {
+        val search = new TravelSearch(origin, destination, airline, location, minRating, company);
+        val details = travelService.getAsync(search);
         return ResponseEntity.ok(details);
     }
 
     /**
      * Retrieves travel details synchronously.
      *
+     * @param origin      Optional origin of the flights.
+     * @param destination Optional destination of the flights.
+     * @param airline     Optional airline of the flights.
+     * @param location    Optional location of the hotels and rental cars.
+     * @param minRating   Optional minimum rating of the hotels.
+     * @param company     Optional company of the rental cars.
      * @return {@link ResponseEntity} with {@link TravelDetails}.
      */
     @Override
-    public ResponseEntity<TravelDetails> getSync() {
-        val details = travelService.getSync();
+    public ResponseEntity<TravelDetails> getSync(
+            String origin,
+            String destination,
+            String airline,
+            String location,
+            Double minRating,
+            String company
+    ) throws InterruptedException {
+        val search = new TravelSearch(origin, destination, airline, location, minRating, company);
+        val details = travelService.getSync(search);
         return ResponseEntity.ok(details);
     }
+
+    /**
+     * Retrieves travel details with a single request to the aggregate endpoint of the target service.
+     *
+     * @return {@link ResponseEntity} with {@link TravelDetails}.
+     */
+    @Override
+    public ResponseEntity<TravelDetails> getAggregate() throws InterruptedException {
+        val details = travelService.getAggregate();
+        return ResponseEntity.ok(details);
+    }
+
+    /**
+     * Streams travel details asynchronously as newline delimited JSON.
+     * The sections are written from the subtask threads as the legs complete, so each line
+     * is written in a single send of the section and its newline. This way the lines of
+     * two legs which complete at the same time cannot be interleaved.
+     *
+     * @return {@link ResponseBodyEmitter} which writes one section per line.
+     */
+    @Override
+    public ResponseBodyEmitter getStream() {
+        val emitter = new ResponseBodyEmitter();
+        streamInBackground(emitter, section -> send(section.name(), () -> emitter.send(line(section))), summary -> {
+        });
+        return emitter;
+    }
+
+    /**
+     * Get a line of newline delimited JSON which can be written in a single send.
+     *
+     * @param section The section to write on the line.
+     * @return The section followed by a newline.
+     */
+    private static Set<ResponseBodyEmitter.DataWithMediaType> line(TravelSection section) {
+        return new LinkedHashSet<>(List.of(
+                new ResponseBodyEmitter.DataWithMediaType(section, MediaType.APPLICATION_JSON),
+                new ResponseBodyEmitter.DataWithMediaType("\n", MediaType.TEXT_PLAIN)
+        ));
+    }
+
+    /**
+     * Streams travel details asynchronously as Server-Sent Events.
+     * Each event is named after its leg and holds the section including
+     * the duration of the leg, followed by a complete event with the summary.
+     *
+     * @return {@link SseEmitter} which sends one event per leg and a complete event.
+     */
+    @Override
+    public SseEmitter getEvents() {
+        val emitter = new SseEmitter();
+        streamInBackground(
+                emitter,
+                section -> send(section.name(), () -> emitter.send(SseEmitter.event()
+                        .name(section.name())
+                        .data(section, MediaType.APPLICATION_JSON))),
+                summary -> send("complete", () -> emitter.send(SseEmitter.event()
+                        .name("complete")
+                        .data(summary, MediaType.APPLICATION_JSON)))
+        );
+        return emitter;
+    }
+
+    /**
+     * Stream travel details on a virtual thread so that
+     * the request thread is released while the sections are written.
+     * The emitter is completed when all sections and the summary have been written.
+     *
+     * @param emitter   The emitter to complete.
+     * @param onSection Consumer which writes each section.
+     * @param onSummary Consumer which writes the summary.
+     */
+    private void streamInBackground(
+            ResponseBodyEmitter emitter,
+            Consumer<TravelSection> onSection,
+            Consumer<TravelSummary> onSummary
+    ) {
+        Thread.ofVirtual().name("travel-stream").start(Tracing.wrap(() -> {
+            try {
+                val start = System.nanoTime();
+                val status = travelService.streamAsync(onSection);
+                onSummary.accept(new TravelSummary(status, (System.nanoTime() - start) / 1_000_000));
+                emitter.complete();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.completeWithError(e);
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        }));
+    }
+
+    /**
+     * Write to an emitter and log if the client has disconnected.
+     *
+     * @param name  Name of what is being written, used for logging.
+     * @param write The write operation.
+     */
+    private void send(String name, EmitterWrite write) {
+        try {
+            write.run();
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Failed to write {}, the client has likely disconnected", name, e);
+        }
+    }
+
+    /**
+     * Write operation on an emitter which may fail with an {@link IOException}.
+     */
+    @FunctionalInterface
+    private interface EmitterWrite {
+        void run() throws IOException;
+    }
 }
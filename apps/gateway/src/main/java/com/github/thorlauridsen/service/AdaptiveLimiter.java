@@ -0,0 +1,218 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.GatewayConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the number of concurrent requests to the target service per path with an adaptive limit.
+ * <p>
+ * The limit follows additive increase, multiplicative decrease (AIMD).
+ * When a request succeeds within the latency threshold while the limit is at least half used,
+ * the limit is increased by one. When a request fails or is slower than the latency threshold,
+ * the limit is multiplied by the backoff ratio. This way the limit settles around the
+ * concurrency the target service can handle, and backs off quickly when it slows down.
+ * A request which was interrupted, for example the losing request of a hedge or a leg of
+ * a cancelled scope, says nothing about the target service and releases its slot without
+ * adjusting the limit.
+ * <p>
+ * A request which arrives while the limit is reached waits briefly for a slot,
+ * and is rejected with {@link LimitExceededException} if none becomes available.
+ * Waiting is interruptible, so a request waiting in a cancelled
+ * {@link java.util.concurrent.StructuredTaskScope} subtask stops waiting immediately.
+ * <p>
+ * The following metrics are recorded, tagged by path:
+ * - travel.limiter.limit: Gauge with the current limit.
+ * - travel.limiter.inflight: Gauge with the number of requests holding a slot.
+ * - travel.limiter.rejected: Counter with the number of rejected requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdaptiveLimiter {
+
+    private final GatewayConfig gatewayConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * Execute a request once a slot is available for its path.
+     *
+     * @param path    The path of the request.
+     * @param request The request to execute.
+     * @param <T>     The type of the response.
+     * @return The response of the request.
+     * @throws InterruptedException   If interrupted while waiting for a slot or the response.
+     * @throws LimitExceededException If no slot became available in time.
+     */
+    public <T> T execute(String path, InterruptibleSupplier<T> request) throws InterruptedException {
+        val settings = gatewayConfig.getLimiter();
+        if (!settings.enabled()) {
+            return request.get();
+        }
+        val limit = limits.computeIfAbsent(path, this::register);
+        limit.acquire(settings.maxWait());
+        val start = System.nanoTime();
+        var success = false;
+        var interrupted = false;
+        try {
+            val response = request.get();
+            success = true;
+            return response;
+        } catch (InterruptedException e) {
+            interrupted = true;
+            throw e;
+        } finally {
+            if (interrupted || (!success && Thread.currentThread().isInterrupted())) {
+                limit.release();
+            } else {
+                limit.release(success, Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+    }
+
+    /**
+     * Get the current limit of a path.
+     *
+     * @param path The path of the request.
+     * @return The current limit, or the initial limit if the path has not been requested yet.
+     */
+    public int limitOf(String path) {
+        val limit = limits.get(path);
+        return limit == null ? gatewayConfig.getLimiter().initialLimit() : limit.current();
+    }
+
+    /**
+     * Create the limit of a path and register its metrics.
+     *
+     * @param path The path of the request.
+     * @return The new {@link Limit}.
+     */
+    private Limit register(String path) {
+        val limit = new Limit(path, gatewayConfig.getLimiter());
+        Gauge.builder("travel.limiter.limit", limit, Limit::current)
+                .description("Current concurrency limit of requests to the target service")
+                .tag("path", path)
+                .register(meterRegistry);
+        Gauge.builder("travel.limiter.inflight", limit, Limit::inFlight)
+                .description("Number of requests to the target service holding a slot")
+                .tag("path", path)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    /**
+     * Adaptive limit of a single path.
+     */
+    private final class Limit {
+
+        private final String path;
+        private final GatewayConfig.Limiter settings;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+        private double limit;
+        private int inFlight;
+
+        private Limit(String path, GatewayConfig.Limiter settings) {
+            this.path = path;
+            this.settings = settings;
+            this.limit = settings.initialLimit();
+        }
+
+        /**
+         * Acquire a slot, waiting at most the given duration for one to become available.
+         *
+         * @param maxWait Maximum duration to wait for a slot.
+         * @throws InterruptedException   If interrupted while waiting.
+         * @throws LimitExceededException If no slot became available in time.
+         */
+        private void acquire(Duration maxWait) throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                var remaining = maxWait.toNanos();
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        Counter.builder("travel.limiter.rejected")
+                                .description("Number of requests to the target service rejected by the limiter")
+                                .tag("path", path)
+                                .register(meterRegistry)
+                                .increment();
+                        throw new LimitExceededException(path, (int) limit);
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Release a slot without adjusting the limit.
+         */
+        private void release() {
+            lock.lock();
+            try {
+                inFlight--;
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Release a slot and adjust the limit based on the outcome of the request.
+         *
+         * @param success  Whether the request succeeded.
+         * @param duration Duration of the request.
+         */
+        private void release(boolean success, Duration duration) {
+            lock.lock();
+            try {
+                val utilized = inFlight * 2 >= (int) limit;
+                inFlight--;
+                if (!success || duration.compareTo(settings.latencyThreshold()) > 0) {
+                    val decreased = Math.max(settings.minLimit(), limit * settings.backoffRatio());
+                    if ((int) decreased < (int) limit) {
+                        log.info("Decreasing concurrency limit of {} to {}", path, (int) decreased);
+                    }
+                    limit = decreased;
+                } else if (utilized) {
+                    limit = Math.min(settings.maxLimit(), limit + 1);
+                }
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int current() {
+            lock.lock();
+            try {
+                return (int) limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int inFlight() {
+            lock.lock();
+            try {
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
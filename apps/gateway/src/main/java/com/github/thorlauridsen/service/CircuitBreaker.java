@@ -0,0 +1,185 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.GatewayConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breaker for requests to the target service per path.
+ * <p>
+ * A circuit starts closed and lets every request through. When the configured number of
+ * consecutive requests to a path have failed, the circuit opens and requests to the path are
+ * skipped with {@link CircuitOpenException} without calling the target service.
+ * After the open duration, the circuit is half open and lets a single trial request through.
+ * If the trial succeeds the circuit closes, otherwise it opens again.
+ * <p>
+ * A request which is interrupted, for example because its scope was cancelled or its
+ * deadline passed, is neither counted as a success nor as a failure. The same applies to a
+ * request rejected by {@link AdaptiveLimiter}, as it never reached the target service.
+ * <p>
+ * The following metrics are recorded, tagged by path:
+ * - travel.circuit.state: Gauge with the state of the circuit, 0 closed, 1 half open and 2 open.
+ * - travel.circuit.rejected: Counter with the number of skipped requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CircuitBreaker {
+
+    private final GatewayConfig gatewayConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Execute a request if the circuit of its path allows it.
+     *
+     * @param path    The path of the request.
+     * @param request The request to execute.
+     * @param <T>     The type of the response.
+     * @return The response of the request.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     * @throws CircuitOpenException If the circuit of the path is open.
+     */
+    public <T> T execute(String path, InterruptibleSupplier<T> request) throws InterruptedException {
+        if (!gatewayConfig.getCircuitBreaker().enabled()) {
+            return request.get();
+        }
+        val circuit = circuits.computeIfAbsent(path, this::register);
+        circuit.acquire();
+        try {
+            val response = request.get();
+            circuit.onSuccess();
+            return response;
+        } catch (InterruptedException | LimitExceededException e) {
+            circuit.onInterrupted();
+            throw e;
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                circuit.onInterrupted();
+            } else {
+                circuit.onFailure();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Create the circuit of a path and register its metrics.
+     *
+     * @param path The path of the request.
+     * @return The new {@link Circuit}.
+     */
+    private Circuit register(String path) {
+        val circuit = new Circuit(path);
+        Gauge.builder("travel.circuit.state", circuit, Circuit::state)
+                .description("State of the circuit of requests to the target service, 0 closed, 1 half open, 2 open")
+                .tag("path", path)
+                .register(meterRegistry);
+        return circuit;
+    }
+
+    /**
+     * State of a circuit.
+     */
+    private enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    /**
+     * Circuit of a single path.
+     */
+    private final class Circuit {
+
+        private final String path;
+        private State state = State.CLOSED;
+        private int failures;
+        private long openedAt;
+        private boolean trialRunning;
+
+        private Circuit(String path) {
+            this.path = path;
+        }
+
+        /**
+         * Check whether a request may be sent.
+         * An open circuit becomes half open once the open duration has passed,
+         * after which only a single trial request is let through at a time.
+         *
+         * @throws CircuitOpenException If the request must be skipped.
+         */
+        private synchronized void acquire() {
+            if (state == State.OPEN) {
+                val openDuration = gatewayConfig.getCircuitBreaker().openDuration();
+                if (System.nanoTime() - openedAt < openDuration.toNanos()) {
+                    reject();
+                }
+                log.info("Circuit of {} is half open, sending a trial request", path);
+                state = State.HALF_OPEN;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialRunning) {
+                    reject();
+                }
+                trialRunning = true;
+            }
+        }
+
+        /**
+         * Close the circuit after a successful request.
+         */
+        private synchronized void onSuccess() {
+            if (state != State.CLOSED) {
+                log.info("Circuit of {} is closed", path);
+            }
+            state = State.CLOSED;
+            failures = 0;
+            trialRunning = false;
+        }
+
+        /**
+         * Count a failed request and open the circuit if the
+         * failure threshold is reached or the trial request failed.
+         */
+        private synchronized void onFailure() {
+            failures++;
+            trialRunning = false;
+            val threshold = gatewayConfig.getCircuitBreaker().failureThreshold();
+            if (state == State.HALF_OPEN || failures >= threshold) {
+                if (state != State.OPEN) {
+                    log.warn("Circuit of {} is open after {} consecutive failures", path, failures);
+                }
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+            }
+        }
+
+        /**
+         * Let another trial request through if the interrupted or rejected request was the trial.
+         */
+        private synchronized void onInterrupted() {
+            trialRunning = false;
+        }
+
+        private synchronized int state() {
+            return state.ordinal();
+        }
+
+        private void reject() {
+            Counter.builder("travel.circuit.rejected")
+                    .description("Number of requests to the target service skipped by an open circuit")
+                    .tag("path", path)
+                    .register(meterRegistry)
+                    .increment();
+            throw new CircuitOpenException(path);
+        }
+    }
+}
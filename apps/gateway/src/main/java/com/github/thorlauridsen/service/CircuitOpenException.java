@@ -0,0 +1,22 @@
+package com.github.thorlauridsen.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request to the target service is skipped by {@link CircuitBreaker}
+ * because the circuit of its path is open.
+ * If it reaches the client, it is answered with 503 Service Unavailable, so the client can retry later.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CircuitOpenException extends RuntimeException {
+
+    /**
+     * Constructor for circuit open exception.
+     *
+     * @param path The path of the skipped request.
+     */
+    public CircuitOpenException(String path) {
+        super("Circuit is open for " + path);
+    }
+}
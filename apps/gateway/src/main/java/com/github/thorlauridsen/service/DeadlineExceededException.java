@@ -0,0 +1,23 @@
+package com.github.thorlauridsen.service;
+
+import java.time.Duration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request to the target service did not complete within the configured timeout.
+ * The request is answered with 504 Gateway Timeout.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class DeadlineExceededException extends RuntimeException {
+
+    /**
+     * Constructor for deadline exceeded exception.
+     *
+     * @param path    The path of the request which did not complete in time.
+     * @param timeout The timeout of the request.
+     */
+    public DeadlineExceededException(String path, Duration timeout) {
+        super("Request to " + path + " did not complete within " + timeout.toMillis() + " ms");
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.GatewayConfig;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory store of the last list received with an ETag per path and filters.
+ * <p>
+ * The ETag of the stored list is sent as If-None-Match on the next request for the same key.
+ * If the target service responds with 304 Not Modified, the stored list is reused as is,
+ * so neither the response body is downloaded nor the JSON is decoded again.
+ * Unlike {@link ResponseCache}, a stored list is never served without asking the target service,
+ * so it is never stale.
+ * <p>
+ * The stored lists are unmodifiable and the same instances are returned to the caller,
+ * so a list which is also kept by {@link ResponseCache} and {@link LastKnownGood} is held in memory once.
+ * Like {@link ResponseCache}, the total size of the stored lists is bounded by their number of elements,
+ * and the least recently used lists are evicted first.
+ * <p>
+ * Only full lists are stored. Lists fetched one page at a time are not sent as conditional requests,
+ * as each page would need an ETag of its own and the pages can change between requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntityTagCache {
+
+    private final GatewayConfig gatewayConfig;
+
+    private final LinkedHashMap<String, Tagged> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalElements;
+
+    /**
+     * Get the last list received with an ETag for a key.
+     *
+     * @param key The path of the request followed by its filters.
+     * @return Optional with the {@link Tagged} list, or an empty optional if there is none
+     * or conditional requests are disabled.
+     */
+    public synchronized Optional<Tagged> get(String key) {
+        if (!gatewayConfig.getConditional().enabled()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    /**
+     * Store the list received for a key together with its ETag, and evict the least
+     * recently used lists until the store is within its size bound.
+     * If the response had no ETag, the previous list of the key is removed
+     * as it can no longer be validated. Lists with more elements than the size bound are not stored.
+     *
+     * @param key   The path of the request followed by its filters.
+     * @param etag  The ETag of the response, or null if it had none.
+     * @param items The received list, which must be unmodifiable as it is shared with every caller.
+     */
+    public synchronized void store(String key, String etag, List<?> items) {
+        if (!gatewayConfig.getConditional().enabled()) {
+            return;
+        }
+        val previous = entries.remove(key);
+        if (previous != null) {
+            totalElements -= previous.items().size();
+        }
+        val maxElements = gatewayConfig.getConditional().maxElements();
+        if (etag == null || items.size() > maxElements) {
+            return;
+        }
+        entries.put(key, new Tagged(etag, items));
+        totalElements += items.size();
+
+        val iterator = entries.entrySet().iterator();
+        while (totalElements > maxElements && iterator.hasNext()) {
+            val eldest = iterator.next();
+            log.info("Evicting list with ETag for {}", eldest.getKey());
+            totalElements -= eldest.getValue().items().size();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * List received with an ETag.
+     *
+     * @param etag  The ETag of the response.
+     * @param items The decoded list.
+     */
+    public record Tagged(String etag, List<?> items) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.thorlauridsen.service;
+
+/**
+ * Token bucket limiting the number of hedged requests for a path.
+ * <p>
+ * Every request deposits a fraction of a token and every hedge withdraws a whole token.
+ * With a ratio of at most 1, the number of hedges can never exceed the number of requests,
+ * so hedging can at most double the load on the target service.
+ * The bucket is capped to limit how many hedges can be sent in a burst.
+ */
+class HedgeBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    /**
+     * Constructor for hedge budget.
+     *
+     * @param ratio     Number of tokens deposited per request, clamped between 0 and 1.
+     * @param maxTokens Maximum number of tokens in the bucket.
+     */
+    HedgeBudget(double ratio, double maxTokens) {
+        this.ratio = Math.clamp(ratio, 0.0, 1.0);
+        this.maxTokens = Math.max(1.0, maxTokens);
+    }
+
+    /**
+     * Deposit tokens for a request.
+     */
+    synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Try to withdraw a token for a hedge.
+     *
+     * @return True if a hedge may be sent.
+     */
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    /**
+     * Return a token for a hedge which was never sent.
+     */
+    synchronized void refund() {
+        tokens = Math.min(maxTokens, tokens + 1.0);
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.GatewayConfig;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Joiner;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes requests to the target service with hedging.
+ * <p>
+ * If a request has been running for longer than the configured percentile
+ * of the recent latency for its path, a second copy of the request is sent.
+ * Both requests are forked in a {@link StructuredTaskScope} opened by the calling thread.
+ * The executor runs on the thread which sends the request, which is the virtual thread of
+ * {@link SingleFlight} or the background revalidation thread of {@link ResponseCache},
+ * not the subtask of the leg, so the scope is not a child of the scope of the leg.
+ * A cancelled leg only reaches the hedge when the single-flight thread is interrupted,
+ * which happens once the last caller attached to the request has been cancelled.
+ * The first request to succeed wins and the scope is cancelled, which interrupts the losing request.
+ * A request which fails before its hedge has been sent fails immediately,
+ * so hedging does not turn into a delayed retry of failed requests.
+ * <p>
+ * Hedges are limited by a {@link HedgeBudget} per path so that
+ * hedging can at most double the load on the target service.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HedgedRequestExecutor {
+
+    private final GatewayConfig gatewayConfig;
+    private final LatencyTracker latencyTracker;
+    private final Map<String, HedgeBudget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Execute a request with hedging.
+     *
+     * @param path    The path of the request, used for latency tracking and the hedge budget.
+     * @param request The request to execute.
+     * @param <T>     The type of the response.
+     * @return The response of the first request to succeed.
+     * @throws InterruptedException If interrupted while waiting for the requests.
+     */
+    public <T> T execute(String path, InterruptibleSupplier<T> request) throws InterruptedException {
+        val hedge = gatewayConfig.getHedge();
+        if (!hedge.enabled()) {
+            return timed(path, request);
+        }
+
+        val budget = budgets.computeIfAbsent(path, key -> new HedgeBudget(hedge.budgetRatio(), hedge.maxBurst()));
+        budget.deposit();
+
+        val delay = latencyTracker.percentile(path, hedge.percentile(), hedge.minSamples())
+                .map(latency -> latency.compareTo(hedge.minDelay()) < 0 ? hedge.minDelay() : latency);
+
+        if (delay.isEmpty() || !budget.tryWithdraw()) {
+            return timed(path, request);
+        }
+
+        val race = new Race<T>();
+        try (val scope = StructuredTaskScope.open(race)) {
+            scope.fork(() -> timed(path, request));
+            scope.fork(() -> hedged(path, request, delay.get(), budget, race));
+            return scope.join();
+        } catch (StructuredTaskScope.FailedException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Send a hedge after the given delay.
+     * If the hedge is cancelled before it is sent, the token is returned to the budget.
+     *
+     * @param path    The path of the request.
+     * @param request The request to execute.
+     * @param delay   Delay before the hedge is sent.
+     * @param budget  The budget the token was withdrawn from.
+     * @param race    The race the hedge takes part in.
+     * @param <T>     The type of the response.
+     * @return The response of the hedge.
+     * @throws InterruptedException If the hedge is cancelled before it is sent.
+     */
+    private <T> T hedged(
+            String path,
+            InterruptibleSupplier<T> request,
+            Duration delay,
+            HedgeBudget budget,
+            Race<T> race
+    ) throws InterruptedException {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            budget.refund();
+            throw e;
+        }
+        if (!race.hedgeSent()) {
+            budget.refund();
+            throw new InterruptedException("Request HTTP GET " + path + " failed before the hedge was sent");
+        }
+        log.info("Hedging request HTTP GET {} after {} ms", path, delay.toMillis());
+        return timed(path, request);
+    }
+
+    /**
+     * Execute a request and record its latency if it succeeds.
+     *
+     * @param path    The path of the request.
+     * @param request The request to execute.
+     * @param <T>     The type of the response.
+     * @return The response of the request.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    private <T> T timed(String path, InterruptibleSupplier<T> request) throws InterruptedException {
+        val start = System.nanoTime();
+        val response = request.get();
+        latencyTracker.record(path, Duration.ofNanos(System.nanoTime() - start));
+        return response;
+    }
+
+    /**
+     * {@link Joiner} for the race between a request and its hedge.
+     * <p>
+     * The first request to succeed wins and the scope is cancelled, which interrupts the other request.
+     * If the request fails before its hedge has been sent, the scope is cancelled as well,
+     * so the failure is returned immediately instead of being retried once the hedge delay has passed.
+     * Once the hedge has been sent, the race only fails when both requests have failed.
+     *
+     * @param <T> The type of the response.
+     */
+    private static final class Race<T> implements Joiner<T, T> {
+
+        private final AtomicReference<Subtask<? extends T>> winner = new AtomicReference<>();
+        private final AtomicReference<Throwable> firstException = new AtomicReference<>();
+        private int failures;
+        private boolean hedgeSent;
+        private boolean decided;
+
+        /**
+         * Mark the hedge as sent, unless the race has already been decided.
+         *
+         * @return True if the hedge may be sent.
+         */
+        synchronized boolean hedgeSent() {
+            if (decided) {
+                return false;
+            }
+            hedgeSent = true;
+            return true;
+        }
+
+        /**
+         * Record the outcome of a completed request.
+         *
+         * @param subtask The completed subtask.
+         * @return True if the race is decided and the scope should be cancelled.
+         */
+        @Override
+        public boolean onComplete(Subtask<? extends T> subtask) {
+            if (subtask.state() == Subtask.State.SUCCESS) {
+                winner.compareAndSet(null, subtask);
+            } else {
+                firstException.compareAndSet(null, subtask.exception());
+            }
+            synchronized (this) {
+                if (winner.get() != null || !hedgeSent || ++failures == 2) {
+                    decided = true;
+                }
+                return decided;
+            }
+        }
+
+        /**
+         * Get the response of the request which won the race.
+         *
+         * @return The response of the first request to succeed.
+         * @throws Throwable The exception of the first request to fail if no request succeeded.
+         */
+        @Override
+        public T result() throws Throwable {
+            val subtask = winner.get();
+            if (subtask != null) {
+                return subtask.get();
+            }
+            throw firstException.get();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.thorlauridsen.service;
+
+/**
+ * Supplier of a result which may block and can be interrupted while blocking.
+ * This is used for requests to the target service which may
+ * be executed within a {@link java.util.concurrent.StructuredTaskScope}.
+ *
+ * @param <T> The type of the result.
+ */
+@FunctionalInterface
+public interface InterruptibleSupplier<T> {
+
+    /**
+     * Get the result.
+     *
+     * @return The result.
+     * @throws InterruptedException If interrupted while waiting for the result.
+     */
+    T get() throws InterruptedException;
+}
@@ -0,0 +1,84 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.GatewayConfig;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory store of the last successfully fetched list per path and filters.
+ * <p>
+ * Unlike {@link ResponseCache}, the lists are never served while the target service is healthy.
+ * They are only used as a fallback when a request fails or is skipped by {@link CircuitBreaker},
+ * and are returned together with their age so the caller can tell that they are stale.
+ * Only a single list is kept per key. As every search has its own key, the number of lists is
+ * bounded by the configured max size, and the least recently used list is evicted first.
+ */
+@Component
+public class LastKnownGood {
+
+    private final Map<String, Snapshot> snapshots;
+
+    /**
+     * Create the store with the max size from {@link GatewayConfig}.
+     *
+     * @param gatewayConfig {@link GatewayConfig} with the max size of the store.
+     */
+    public LastKnownGood(GatewayConfig gatewayConfig) {
+        val maxSize = gatewayConfig.getCircuitBreaker().fallbackMaxSize();
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Store the last successfully fetched list of a key.
+     *
+     * @param key   The path of the request followed by its filters.
+     * @param items The fetched list.
+     */
+    public void store(String key, List<?> items) {
+        snapshots.put(key, new Snapshot(items, System.nanoTime()));
+    }
+
+    /**
+     * Get the last successfully fetched list of a key if it is not older than the given max age.
+     *
+     * @param key    The path of the request followed by its filters.
+     * @param maxAge Maximum age of the list.
+     * @return Optional with the {@link Snapshot}, or an empty optional if there is none.
+     */
+    public Optional<Snapshot> get(String key, Duration maxAge) {
+        val snapshot = snapshots.get(key);
+        if (snapshot == null || snapshot.age().compareTo(maxAge) > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Last successfully fetched list of a key.
+     *
+     * @param items    The fetched list.
+     * @param storedAt Time the list was stored as given by {@link System#nanoTime()}.
+     */
+    public record Snapshot(List<?> items, long storedAt) {
+
+        /**
+         * Get the age of the list.
+         *
+         * @return Duration since the list was stored.
+         */
+        public Duration age() {
+            return Duration.ofNanos(System.nanoTime() - storedAt);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.GatewayConfig;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the recent latency of requests to the target service per path.
+ * For each path, a sliding window of the most recent successful
+ * request durations is kept in a fixed size ring buffer.
+ */
+@Component
+@RequiredArgsConstructor
+public class LatencyTracker {
+
+    private final GatewayConfig gatewayConfig;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Record the duration of a successful request.
+     *
+     * @param path     The path of the request.
+     * @param duration The duration of the request.
+     */
+    public void record(String path, Duration duration) {
+        windows.computeIfAbsent(path, key -> new Window(gatewayConfig.getHedge().windowSize()))
+                .record(duration.toNanos());
+    }
+
+    /**
+     * Get a percentile of the recent latency for a path.
+     *
+     * @param path       The path of the request.
+     * @param percentile The percentile between 0 and 100.
+     * @param minSamples Minimum number of samples required.
+     * @return Optional with the latency, or an empty optional if there are not enough samples.
+     */
+    public Optional<Duration> percentile(String path, double percentile, int minSamples) {
+        val window = windows.get(path);
+        if (window == null) {
+            return Optional.empty();
+        }
+        return window.percentile(percentile, minSamples).map(Duration::ofNanos);
+    }
+
+    /**
+     * Ring buffer holding the most recent latency samples in nanoseconds.
+     */
+    private static final class Window {
+
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        private Window(int size) {
+            this.samples = new long[Math.max(1, size)];
+        }
+
+        private synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        private synchronized Optional<Long> percentile(double percentile, int minSamples) {
+            if (count == 0 || count < minSamples) {
+                return Optional.empty();
+            }
+            val sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            val index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return Optional.of(sorted[Math.clamp(index, 0, count - 1)]);
+        }
+    }
+}
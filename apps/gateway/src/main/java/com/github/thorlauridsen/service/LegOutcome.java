@@ -0,0 +1,24 @@
+package com.github.thorlauridsen.service;
+
+import java.util.Locale;
+
+/**
+ * Outcome of a forked subtask fetching a single leg of the travel details.
+ * Used as a tag on the metrics recorded by {@link TravelMetrics}.
+ */
+enum LegOutcome {
+    SUCCESS,
+    FAILURE,
+    CANCELLED,
+    TIMEOUT,
+    FALLBACK;
+
+    /**
+     * Get the value of the outcome tag.
+     *
+     * @return The outcome in lower case.
+     */
+    String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.thorlauridsen.service;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import lombok.val;
+
+/**
+ * Query for a single leg of the travel details.
+ * <p>
+ * The path identifies the endpoint of the target service. It is used for the metrics,
+ * concurrency limit, circuit breaker and hedging of the leg, so their number stays bounded
+ * no matter which filters are requested. The filters are sent to the target service as
+ * query parameters, and the path together with the filters identifies the response.
+ * This {@link #key()} is used for the response cache, request collapsing and last known good list.
+ * <p>
+ * A filtered query is fetched from the search endpoint of the path, page by page and without
+ * a conditional request, while a query without filters can be served with If-None-Match.
+ *
+ * @param name        Name of the leg, for example flights.
+ * @param path        The path to fetch the data from.
+ * @param elementType The type of the elements in the list.
+ * @param filters     Filters sorted by name, without null values.
+ * @param <T>         The type of the elements in the list.
+ */
+record LegQuery<T>(
+        String name,
+        String path,
+        Class<T> elementType,
+        SortedMap<String, String> filters
+) {
+
+    /**
+     * Create a query without filters.
+     *
+     * @param name        Name of the leg.
+     * @param path        The path to fetch the data from.
+     * @param elementType The type of the elements in the list.
+     * @param <T>         The type of the elements in the list.
+     * @return {@link LegQuery} without filters.
+     */
+    static <T> LegQuery<T> of(String name, String path, Class<T> elementType) {
+        return new LegQuery<>(name, path, elementType, Collections.emptySortedMap());
+    }
+
+    /**
+     * Create a copy of this query with an additional filter.
+     * A null value matches everything, so the filter is left out and the query is unchanged.
+     *
+     * @param filter Name of the filter.
+     * @param value  Value of the filter, or null.
+     * @return {@link LegQuery} with the filter.
+     */
+    LegQuery<T> with(String filter, Object value) {
+        if (value == null) {
+            return this;
+        }
+        val copy = new TreeMap<>(filters);
+        copy.put(filter, value.toString());
+        return new LegQuery<>(name, path, elementType, Collections.unmodifiableSortedMap(copy));
+    }
+
+    /**
+     * Check whether the query has any filters.
+     *
+     * @return True if at least one filter is set.
+     */
+    boolean filtered() {
+        return !filters.isEmpty();
+    }
+
+    /**
+     * Get the key which identifies the response of the query.
+     * The filters are sorted by name, so the same filters always give the same key.
+     *
+     * @return The path followed by the filters.
+     */
+    String key() {
+        if (!filtered()) {
+            return path;
+        }
+        return filters.entrySet().stream()
+                .map(filter -> filter.getKey() + "=" + filter.getValue())
+                .collect(Collectors.joining("&", path + "?", ""));
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.model.LegStatus;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Result of fetching a single leg of the travel details.
+ *
+ * @param name     Name of the leg, for example flights.
+ * @param items    List of fetched elements.
+ * @param duration Duration it took to fetch the leg.
+ * @param status   {@link LegStatus} of the leg, either success, stale or degraded.
+ * @param age      Age of the elements if the leg is stale, otherwise null.
+ * @param <T>      The type of the elements in the list.
+ */
+record LegResult<T>(
+        String name,
+        List<T> items,
+        Duration duration,
+        LegStatus status,
+        Duration age
+) {
+
+    /**
+     * Get the age of the elements in milliseconds.
+     *
+     * @return The age in milliseconds, or null if the leg is not stale.
+     */
+    Long ageMs() {
+        return age == null ? null : age.toMillis();
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.thorlauridsen.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request to the target service is rejected by {@link AdaptiveLimiter}
+ * because the concurrency limit of its path was reached and no slot became available in time.
+ * If it reaches the client, it is answered with 503 Service Unavailable, so the client can retry later.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LimitExceededException extends RuntimeException {
+
+    /**
+     * Constructor for limit exceeded exception.
+     *
+     * @param path  The path of the rejected request.
+     * @param limit The concurrency limit of the path when the request was rejected.
+     */
+    public LimitExceededException(String path, int limit) {
+        super("Concurrency limit of " + limit + " reached for " + path);
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.GatewayConfig;
+import com.github.thorlauridsen.tracing.Tracing;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory cache of responses from the target service keyed by path.
+ * <p>
+ * A cached response is fresh for the configured ttl. After the ttl, the stale response
+ * is still served for the configured stale-while-revalidate duration while it is
+ * revalidated in the background on a virtual thread. After that, the response is expired.
+ * <p>
+ * The loader is expected to collapse concurrent requests for the same path,
+ * see {@link SingleFlight}, so concurrent misses result in a single request.
+ * The total size of the cached responses is bounded by their number of elements,
+ * which is known without serializing the lists again, and the least recently used
+ * responses are evicted first. The cached lists are shared by every caller, so they are unmodifiable.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResponseCache {
+
+    private final GatewayConfig gatewayConfig;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private long totalElements;
+
+    /**
+     * Get a list from the cache or load it from the target service.
+     *
+     * @param path   The path of the request.
+     * @param loader Loader which executes the request to the target service.
+     * @param <T>    The type of the elements in the list.
+     * @return The cached or loaded list, which is unmodifiable if the cache is enabled.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String path, InterruptibleSupplier<List<T>> loader) throws InterruptedException {
+        val config = gatewayConfig.getCache();
+        if (!config.enabled()) {
+            return loader.get();
+        }
+
+        val entry = lookup(path);
+        if (entry != null) {
+            val age = System.nanoTime() - entry.storedAt();
+            if (age < config.ttl().toNanos()) {
+                return (List<T>) entry.value();
+            }
+            if (age < config.ttl().plus(config.staleWhileRevalidate()).toNanos()) {
+                revalidate(path, loader);
+                return (List<T>) entry.value();
+            }
+        }
+        val value = List.copyOf(loader.get());
+        store(path, value);
+        return value;
+    }
+
+    /**
+     * Revalidate a stale response in the background,
+     * unless the response for the path is already being revalidated.
+     *
+     * @param path   The path of the request.
+     * @param loader Loader which executes the request to the target service.
+     */
+    private void revalidate(String path, InterruptibleSupplier<? extends List<?>> loader) {
+        if (!revalidating.add(path)) {
+            return;
+        }
+        log.info("Revalidating stale response for {} in the background", path);
+        Thread.ofVirtual().name("cache-revalidate").start(Tracing.wrap(() -> {
+            try {
+                store(path, List.copyOf(loader.get()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Failed to revalidate response for {}, serving stale response", path, e);
+            } finally {
+                revalidating.remove(path);
+            }
+        }));
+    }
+
+    /**
+     * Look up the entry for a path and mark it as recently used.
+     *
+     * @param path The path of the request.
+     * @return The entry or null if there is no entry for the path.
+     */
+    private synchronized Entry lookup(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * Store a response and evict the least recently used
+     * responses until the cache is within its size bound.
+     * Responses with more elements than the size bound are not stored.
+     * If the response is already stored, for example because concurrent
+     * callers received the same collapsed response, only its age is reset.
+     *
+     * @param path  The path of the request.
+     * @param value The unmodifiable response to store.
+     */
+    private synchronized void store(String path, List<?> value) {
+        val previous = entries.remove(path);
+        if (previous != null) {
+            totalElements -= previous.value().size();
+        }
+        val maxElements = gatewayConfig.getCache().maxElements();
+        if (value.size() > maxElements) {
+            return;
+        }
+        entries.put(path, new Entry(value, System.nanoTime()));
+        totalElements += value.size();
+
+        val iterator = entries.entrySet().iterator();
+        while (totalElements > maxElements && iterator.hasNext()) {
+            val eldest = iterator.next();
+            log.info("Evicting cached response for {}", eldest.getKey());
+            totalElements -= eldest.getValue().value().size();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Cached response.
+     *
+     * @param value    The cached unmodifiable list.
+     * @param storedAt Time the response was stored as given by {@link System#nanoTime()}.
+     */
+    private record Entry(List<?> value, long storedAt) {
+    }
+}
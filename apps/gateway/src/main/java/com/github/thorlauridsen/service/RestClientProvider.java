@@ -1,14 +1,26 @@
 package com.github.thorlauridsen.service;
 
 import com.github.thorlauridsen.config.GatewayConfig;
+import com.github.thorlauridsen.tracing.TracingClientInterceptor;
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.RequiredArgsConstructor;
+import lombok.val;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
 /**
  * Provider for {@link RestClient} bean.
- * Configures the {@link RestClient} with the base URL retrieved from {@link GatewayConfig}.
+ * Configures the {@link RestClient} with the base URL retrieved from {@link GatewayConfig}
+ * and a pooled JDK {@link HttpClient} configured with the client settings from {@link GatewayConfig}.
+ * <p>
+ * The size and idle timeout of the connection pool are not configured here. The JDK reads them
+ * from system properties once, when the first {@link HttpClient} is created, and they apply to every
+ * {@link HttpClient} in the JVM. They are therefore set before the application context is created,
+ * see {@link com.github.thorlauridsen.config.HttpClientPoolConfigurer}.
  */
 @Component
 @RequiredArgsConstructor
@@ -16,17 +28,54 @@ public class RestClientProvider {
 
     private final GatewayConfig gatewayConfig;
 
+    /**
+     * Bean for the executor of the JDK {@link HttpClient}.
+     * The {@link HttpClient} does not shut down an executor it was given,
+     * so the executor is closed when the application context is closed.
+     *
+     * @return {@link ExecutorService} which runs each task on a new virtual thread.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService httpClientExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Bean for the JDK {@link HttpClient} used to call the target service.
+     * The client uses virtual threads for its internal work,
+     * and connections are kept alive and reused across requests.
+     *
+     * @param httpClientExecutor The executor of the client.
+     * @return Configured {@link HttpClient}.
+     */
+    @Bean(destroyMethod = "close")
+    public HttpClient httpClient(ExecutorService httpClientExecutor) {
+        val client = gatewayConfig.getClient();
+        return HttpClient.newBuilder()
+                .version(client.httpVersion())
+                .connectTimeout(client.connectTimeout())
+                .executor(httpClientExecutor)
+                .build();
+    }
+
     /**
      * Bean for providing a configured {@link RestClient}.
      * It sets the base URL based on the target URL from application.yml.
+     * Every request is sent in a client span with a traceparent header.
      *
-     * @param builder {@link RestClient.Builder} instance.
+     * @param builder    {@link RestClient.Builder} instance.
+     * @param httpClient The JDK {@link HttpClient} which sends the requests.
      * @return Configured {@link RestClient}.
      */
     @Bean
-    public RestClient restClient(RestClient.Builder builder) {
+    public RestClient restClient(RestClient.Builder builder, HttpClient httpClient) {
+        val requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(gatewayConfig.getClient().readTimeout());
+
         return builder
                 .baseUrl(gatewayConfig.getTargetUrl())
+                .requestFactory(requestFactory)
+                .requestInterceptor(new TracingClientInterceptor())
                 .build();
     }
 }
@@ -0,0 +1,146 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.tracing.Tracing;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collapses identical concurrent requests to the target service into a single request.
+ * <p>
+ * The first caller for a key starts the request on a separate virtual thread and any
+ * caller which arrives while the request is in flight attaches to it instead of sending
+ * a new request. The request is not owned by any single caller, so a caller which is
+ * cancelled, for example because its {@link java.util.concurrent.StructuredTaskScope}
+ * timed out, only detaches from the request. The request itself is only cancelled
+ * when the last attached caller has been cancelled.
+ */
+@Component
+@Slf4j
+public class SingleFlight {
+
+    private final Map<String, Call> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Execute a request or attach to an identical request which is already in flight.
+     *
+     * @param key     Key identifying identical requests, for example the path of the request.
+     * @param request The request to execute.
+     * @param <T>     The type of the response.
+     * @return The response of the request.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, InterruptibleSupplier<T> request) throws InterruptedException {
+        while (true) {
+            val created = new Call(key);
+            val existing = calls.putIfAbsent(key, created);
+            val call = existing == null ? created : existing;
+
+            if (existing == null) {
+                created.start(request);
+            } else {
+                log.debug("Attaching to in-flight request for {}", key);
+            }
+            if (call.attach()) {
+                return (T) call.await();
+            }
+            // The call was abandoned by all of its callers, so start a new one
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * Request in flight which one or more callers are attached to.
+     */
+    private final class Call {
+
+        private final String key;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private Thread thread;
+        private int waiters;
+        private boolean abandoned;
+
+        private Call(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Start the request on a new virtual thread.
+         * The request runs in the trace context of the caller which started it.
+         *
+         * @param request The request to execute.
+         */
+        private synchronized void start(InterruptibleSupplier<?> request) {
+            thread = Thread.ofVirtual().name("single-flight").start(Tracing.wrap(() -> {
+                try {
+                    future.complete(request.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    calls.remove(key, this);
+                }
+            }));
+        }
+
+        /**
+         * Attach a caller to the request.
+         *
+         * @return False if the request has been abandoned and can no longer be attached to.
+         */
+        private synchronized boolean attach() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        /**
+         * Wait for the response of the request.
+         * If the caller is interrupted and it is the last caller attached to
+         * the request, the request is abandoned and its thread is interrupted.
+         *
+         * @return The response of the request.
+         * @throws InterruptedException If interrupted while waiting for the response.
+         */
+        private Object await() throws InterruptedException {
+            try {
+                val response = future.get();
+                detach(false);
+                return response;
+            } catch (InterruptedException e) {
+                detach(true);
+                throw e;
+            } catch (ExecutionException e) {
+                detach(false);
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("Request for " + key + " failed", e.getCause());
+            }
+        }
+
+        /**
+         * Detach a caller from the request.
+         *
+         * @param cancelled Whether the caller was cancelled.
+         */
+        private synchronized void detach(boolean cancelled) {
+            waiters--;
+            if (cancelled && waiters == 0 && !future.isDone()) {
+                log.info("Cancelling in-flight request for {} as all callers were cancelled", key);
+                abandoned = true;
+                thread.interrupt();
+                calls.remove(key, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.model.LegStatus;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Joiner;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import lombok.val;
+
+/**
+ * {@link Joiner} used when fetching the legs of the travel details.
+ * <p>
+ * The result of each subtask is recorded as soon as the subtask completes,
+ * unless the subtask has already been marked as timed out with {@link #markTimedOut(Subtask)}.
+ * This means that the results of the completed subtasks are still available
+ * if the scope times out before all subtasks have completed.
+ * If the joiner is created with a listener, each result is instead passed to
+ * the listener as soon as the subtask completes, and the result is not retained.
+ * <p>
+ * If a subtask fails, the scope is cancelled and {@link StructuredTaskScope#join()}
+ * will throw with the exception of the first subtask to fail. A leg which is served
+ * from a fallback by {@link CircuitBreaker} does not fail, but completes with its status.
+ */
+class TravelLegJoiner implements Joiner<LegResult<?>, Void> {
+
+    private final Map<Subtask<?>, LegResult<?>> results = new ConcurrentHashMap<>();
+    private final Map<Subtask<?>, LegStatus> statuses = new ConcurrentHashMap<>();
+    private final AtomicReference<Throwable> firstException = new AtomicReference<>();
+    private final Consumer<LegResult<?>> listener;
+
+    /**
+     * Constructor for a joiner which retains the results.
+     */
+    TravelLegJoiner() {
+        this.listener = null;
+    }
+
+    /**
+     * Constructor for a joiner which passes the results to a listener.
+     *
+     * @param listener Listener which is invoked by the subtask thread when a subtask completes.
+     */
+    TravelLegJoiner(Consumer<LegResult<?>> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Record the result of a completed subtask.
+     *
+     * @param subtask The completed subtask.
+     * @return True if the scope should be cancelled.
+     */
+    @Override
+    public boolean onComplete(Subtask<? extends LegResult<?>> subtask) {
+        if (subtask.state() == Subtask.State.FAILED) {
+            firstException.compareAndSet(null, subtask.exception());
+            return true;
+        }
+        if (statuses.putIfAbsent(subtask, subtask.get().status()) != null) {
+            return false;
+        }
+        if (listener != null) {
+            listener.accept(subtask.get());
+        } else {
+            results.put(subtask, subtask.get());
+        }
+        return false;
+    }
+
+    /**
+     * Invoked by {@link StructuredTaskScope#join()} when all subtasks have completed.
+     *
+     * @return Nothing, the results are retrieved with {@link #resultOf(Subtask)}.
+     * @throws Throwable The exception of the first subtask to fail.
+     */
+    @Override
+    public Void result() throws Throwable {
+        val exception = firstException.get();
+        if (exception != null) {
+            throw exception;
+        }
+        return null;
+    }
+
+    /**
+     * Get the retained result of a subtask.
+     *
+     * @param subtask The subtask to get the result for.
+     * @param <T>     The type of the elements in the list.
+     * @return Optional with the result if the subtask completed successfully,
+     * or an empty optional if the subtask did not complete in time.
+     */
+    @SuppressWarnings("unchecked")
+    <T> Optional<LegResult<T>> resultOf(Subtask<LegResult<T>> subtask) {
+        return Optional.ofNullable((LegResult<T>) results.get(subtask));
+    }
+
+    /**
+     * Mark a subtask which did not complete before the deadline as {@link LegStatus#TIMED_OUT}.
+     * A subtask which completes at the deadline may race with this call, so only one of
+     * them wins. If the subtask has already been recorded, it is left as it is.
+     *
+     * @param subtask The subtask to mark.
+     * @return True if the subtask was marked, false if its result was recorded first.
+     */
+    boolean markTimedOut(Subtask<?> subtask) {
+        return statuses.putIfAbsent(subtask, LegStatus.TIMED_OUT) == null;
+    }
+
+    /**
+     * Get the status of a subtask.
+     * A subtask which did not complete before the deadline is {@link LegStatus#TIMED_OUT},
+     * otherwise the status is the status of its {@link LegResult}.
+     *
+     * @param subtask The subtask to get the status for.
+     * @return {@link LegStatus} of the subtask.
+     */
+    LegStatus statusOf(Subtask<?> subtask) {
+        return statuses.getOrDefault(subtask, LegStatus.TIMED_OUT);
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.thorlauridsen.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records metrics for the structured fan-out of the travel details.
+ * <p>
+ * For every forked subtask the following metrics are recorded:
+ * - travel.leg: Timer tagged by path and outcome.
+ * - travel.leg.outcomes: Counter tagged by path and outcome.
+ * - travel.leg.inflight: Gauge with the number of running subtasks tagged by path.
+ * <p>
+ * For every {@link java.util.concurrent.StructuredTaskScope} the following metrics are recorded:
+ * - travel.scope.active: Long task timer with the number and age of open scopes tagged by operation.
+ * - travel.scope: Timer with the lifetime of closed scopes tagged by operation.
+ * <p>
+ * The timers publish percentile histograms, so the tail latency of each leg can be
+ * compared with the tail latency of the scope to find the leg responsible for it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TravelMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Start measuring a leg before it is forked.
+     *
+     * @param path The path which the leg fetches.
+     * @return {@link Leg} which records the outcome of the leg.
+     */
+    Leg startLeg(String path) {
+        return new Leg(path);
+    }
+
+    /**
+     * Start measuring the lifetime of a scope.
+     *
+     * @param operation Name of the operation which opened the scope.
+     * @return {@link ScopeSample} which records the lifetime of the scope when it is closed.
+     */
+    ScopeSample startScope(String operation) {
+        return new ScopeSample(operation);
+    }
+
+    /**
+     * Get the in-flight counter of a path and register its gauge on first use.
+     *
+     * @param path The path of the leg.
+     * @return Counter of running subtasks for the path.
+     */
+    private AtomicInteger inFlight(String path) {
+        return inFlight.computeIfAbsent(path, key -> {
+            val counter = new AtomicInteger();
+            Gauge.builder("travel.leg.inflight", counter, AtomicInteger::get)
+                    .description("Number of running subtasks fetching a leg of the travel details")
+                    .tag("path", key)
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    /**
+     * Measurement of a single leg.
+     * <p>
+     * The subtask reports when it starts and finishes running, and records its outcome
+     * if it succeeds or fails. The owner of the scope records the outcome of the legs
+     * which were cancelled or timed out after joining. Only the first outcome is recorded.
+     */
+    final class Leg {
+
+        private final String path;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private Leg(String path) {
+            this.path = path;
+        }
+
+        /**
+         * Invoked by the subtask when it starts running.
+         */
+        void running() {
+            inFlight(path).incrementAndGet();
+        }
+
+        /**
+         * Invoked by the subtask when it has finished running, regardless of the outcome.
+         */
+        void finished() {
+            inFlight(path).decrementAndGet();
+        }
+
+        /**
+         * Record the outcome of the leg if no outcome has been recorded yet.
+         *
+         * @param outcome {@link LegOutcome} of the leg.
+         */
+        void stop(LegOutcome outcome) {
+            if (!stopped.compareAndSet(false, true)) {
+                return;
+            }
+            Timer.builder("travel.leg")
+                    .description("Duration of fetching a leg of the travel details")
+                    .tag("path", path)
+                    .tag("outcome", outcome.tag())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - start));
+            Counter.builder("travel.leg.outcomes")
+                    .description("Number of legs of the travel details by outcome")
+                    .tag("path", path)
+                    .tag("outcome", outcome.tag())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    /**
+     * Measurement of the lifetime of a scope.
+     * This is {@link AutoCloseable} so it can be opened together with the scope.
+     */
+    final class ScopeSample implements AutoCloseable {
+
+        private final String operation;
+        private final long start = System.nanoTime();
+        private final LongTaskTimer.Sample active;
+
+        private ScopeSample(String operation) {
+            this.operation = operation;
+            this.active = LongTaskTimer.builder("travel.scope.active")
+                    .description("Open scopes fetching the travel details")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .start();
+        }
+
+        @Override
+        public void close() {
+            active.stop();
+            Timer.builder("travel.scope")
+                    .description("Lifetime of scopes fetching the travel details")
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
@@ -1,20 +1,39 @@
 package com.github.thorlauridsen.service;
 
+import com.github.thorlauridsen.config.GatewayConfig;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Flight;
 import com.github.thorlauridsen.model.Hotel;
+import com.github.thorlauridsen.model.LegStatus;
 import com.github.thorlauridsen.model.RentalCar;
+import com.github.thorlauridsen.model.TravelAge;
+import com.github.thorlauridsen.model.TravelAggregate;
 import com.github.thorlauridsen.model.TravelDetails;
+import com.github.thorlauridsen.model.TravelSearch;
+import com.github.thorlauridsen.model.TravelSection;
+import com.github.thorlauridsen.model.TravelStatus;
+import com.github.thorlauridsen.tracing.Tracing;
+import java.io.IOException;
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.StructuredTaskScope;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
 
 /**
  * Service class for fetching travel details.
@@ -27,6 +46,8 @@ import org.springframework.web.client.RestClient;
  * - /rentalcars
  * <p>
  * The data is fetched asynchronously using concurrency and synchronously without concurrency.
+ * Travel details can be filtered, in which case the filters are pushed down to
+ * the search endpoints of the target service instead of being applied in the gateway.
  * Both functions will measure the time it takes to fetch the data.
  * <p>
  * The provider subproject exposes endpoints for hotels, flights, and rental cars.
@@ -37,23 +58,65 @@ import org.springframework.web.client.RestClient;
 @Slf4j
 public class TravelService {
 
+    private static final String FLIGHTS = "flights";
+    private static final String HOTELS = "hotels";
+    private static final String RENTAL_CARS = "rentalCars";
+    private static final String AGGREGATE_PATH = "/aggregate";
+
+    private static final LegQuery<Flight> ALL_FLIGHTS = LegQuery.of(FLIGHTS, "/flights", Flight.class);
+    private static final LegQuery<Hotel> ALL_HOTELS = LegQuery.of(HOTELS, "/hotels", Hotel.class);
+    private static final LegQuery<RentalCar> ALL_RENTAL_CARS = LegQuery.of(RENTAL_CARS, "/rentalcars", RentalCar.class);
+
+    private final GatewayConfig gatewayConfig;
+    private final AdaptiveLimiter adaptiveLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final EntityTagCache entityTagCache;
+    private final HedgedRequestExecutor hedgedRequestExecutor;
+    private final LastKnownGood lastKnownGood;
+    private final ResponseCache responseCache;
+    private final SingleFlight singleFlight;
+    private final TravelMetrics travelMetrics;
     private final RestClient restClient;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Get all travel details synchronously.
+     *
+     * @return {@link TravelDetails} containing the fetched data.
+     */
+    public TravelDetails getSync() throws InterruptedException {
+        return getSync(TravelSearch.ANY);
+    }
 
     /**
      * Get travel details synchronously.
+     * Responses are served from {@link ResponseCache} when possible.
+     * Each leg falls back to its last known good list if it fails, see {@link #guarded}.
+     * Filters are pushed down to the target service, see {@link #getAsync(TravelSearch)}.
      *
+     * @param search {@link TravelSearch} with the filters.
      * @return {@link TravelDetails} containing the fetched data.
      */
-    public TravelDetails getSync() {
+    public TravelDetails getSync(TravelSearch search) throws InterruptedException {
 
-        log.info("Fetching travel details synchronously");
+        log.info("Fetching travel details synchronously with {}", search);
         val start = OffsetDateTime.now();
 
-        val flights = fetchList("/flights", Flight.class);
-        val hotels = fetchList("/hotels", Hotel.class);
-        val rentalCars = fetchList("/rentalcars", RentalCar.class);
+        val flightsQuery = flightsQuery(search);
+        val hotelsQuery = hotelsQuery(search);
+        val carsQuery = rentalCarsQuery(search);
+
+        val flights = guarded(flightsQuery, () -> fetchCached(flightsQuery));
+        val hotels = guarded(hotelsQuery, () -> fetchCached(hotelsQuery));
+        val rentalCars = guarded(carsQuery, () -> fetchCached(carsQuery));
 
-        val details = new TravelDetails(flights, hotels, rentalCars);
+        val details = new TravelDetails(
+                flights.items(),
+                hotels.items(),
+                rentalCars.items(),
+                new TravelStatus(flights.status(), hotels.status(), rentalCars.status()),
+                new TravelAge(flights.ageMs(), hotels.ageMs(), rentalCars.ageMs())
+        );
 
         val duration = Duration.between(start, OffsetDateTime.now());
         log.info("Fetched travel details in {} ms", duration.toMillis());
@@ -61,59 +124,691 @@ public class TravelService {
         return details;
     }
 
+    /**
+     * Get all travel details asynchronously.
+     *
+     * @return {@link TravelDetails} containing the fetched data.
+     */
+    public TravelDetails getAsync() throws InterruptedException {
+        return getAsync(TravelSearch.ANY);
+    }
+
     /**
      * Get travel details asynchronously.
      * <p>
      * This will initiate three asynchronous requests
      * to fetch data from the three different endpoints.
      * The requests will be executed concurrently using {@link StructuredTaskScope}.
+     * <p>
+     * The scope is opened with the timeout from {@link GatewayConfig}.
+     * If the deadline passes before all requests have completed, the remaining
+     * requests are cancelled and the legs which did complete are returned.
+     * The legs which did not complete are returned as empty lists
+     * and are marked as {@link LegStatus#TIMED_OUT}.
+     * <p>
+     * Responses are served from {@link ResponseCache} when possible.
+     * On a cache miss, the request is executed with {@link HedgedRequestExecutor} so that
+     * a slow request is hedged with a second copy of the request within the same scope.
+     * <p>
+     * Each leg is fetched through its {@link CircuitBreaker}, so a failing leg is served
+     * from its last known good list instead of failing the other legs, see {@link #guarded}.
+     * <p>
+     * A leg with filters is fetched from the search endpoint of the target service,
+     * which only returns the matching travel options up to the default page size.
+     * This way the response grows with the number of matches instead of the size of the table.
+     * Responses are cached per path and filters, while the metrics, concurrency limit,
+     * circuit breaker and hedging are shared by every request to the same path.
      *
+     * @param search {@link TravelSearch} with the filters.
      * @return {@link TravelDetails} containing the fetched data.
      */
-    public TravelDetails getAsync() throws InterruptedException {
+    public TravelDetails getAsync(TravelSearch search) throws InterruptedException {
+        log.info("Fetching travel details asynchronously with {}", search);
+        return fetchAsync("async", flightsQuery(search), hotelsQuery(search), rentalCarsQuery(search));
+    }
+
+    /**
+     * Fetch the three legs of the travel details concurrently using {@link StructuredTaskScope}.
+     *
+     * @param operation  Name of the operation, used to tag the scope metrics.
+     * @param flights    {@link LegQuery} for the flights leg.
+     * @param hotels     {@link LegQuery} for the hotels leg.
+     * @param rentalCars {@link LegQuery} for the rental cars leg.
+     * @return {@link TravelDetails} containing the fetched data.
+     * @throws InterruptedException If interrupted while waiting for the legs.
+     */
+    private TravelDetails fetchAsync(
+            String operation,
+            LegQuery<Flight> flights,
+            LegQuery<Hotel> hotels,
+            LegQuery<RentalCar> rentalCars
+    ) throws InterruptedException {
 
-        log.info("Fetching travel details asynchronously");
         val start = OffsetDateTime.now();
+        val joiner = new TravelLegJoiner();
+
+        val flightsLeg = travelMetrics.startLeg(flights.path());
+        val hotelsLeg = travelMetrics.startLeg(hotels.path());
+        val carsLeg = travelMetrics.startLeg(rentalCars.path());
+
+        try (val scopeSample = travelMetrics.startScope(operation); val scope = openScope(joiner)) {
+
+            val flightsTask = scope.fork(() -> fetchLeg(flights, flightsLeg));
+            val hotelsTask = scope.fork(() -> fetchLeg(hotels, hotelsLeg));
+            val carsTask = scope.fork(() -> fetchLeg(rentalCars, carsLeg));
+
+            joinWithDeadline(scope, flightsLeg, hotelsLeg, carsLeg);
+
+            val flightsResult = joiner.resultOf(flightsTask);
+            val hotelsResult = joiner.resultOf(hotelsTask);
+            val carsResult = joiner.resultOf(carsTask);
+
+            val details = new TravelDetails(
+                    flightsResult.map(LegResult::items).orElse(List.of()),
+                    hotelsResult.map(LegResult::items).orElse(List.of()),
+                    carsResult.map(LegResult::items).orElse(List.of()),
+                    new TravelStatus(
+                            joiner.statusOf(flightsTask),
+                            joiner.statusOf(hotelsTask),
+                            joiner.statusOf(carsTask)
+                    ),
+                    new TravelAge(
+                            flightsResult.map(LegResult::ageMs).orElse(null),
+                            hotelsResult.map(LegResult::ageMs).orElse(null),
+                            carsResult.map(LegResult::ageMs).orElse(null)
+                    )
+            );
+
+            val duration = Duration.between(start, OffsetDateTime.now());
+            log.info("Fetched travel details in {} ms", duration.toMillis());
+
+            return details;
+        }
+    }
 
-        try (val scope = StructuredTaskScope.open()) {
+    /**
+     * Get travel details with a single request to the aggregate endpoint of the target service.
+     * <p>
+     * Instead of fanning out three requests from the gateway, the target service fetches
+     * the three lists concurrently and returns them in a single response. This saves two
+     * round trips, connections and responses per request, and allows comparing fan-out
+     * in the target service with fan-out in the gateway.
+     * <p>
+     * The request passes through the {@link CircuitBreaker} and {@link AdaptiveLimiter}
+     * of the aggregate path and is recorded with {@link TravelMetrics} as a single leg.
+     * As all legs are fetched together, a failed request fails the travel details.
+     * <p>
+     * The request is forked in a {@link StructuredTaskScope} with the same timeout as the
+     * other strategies. If the deadline passes, the request is cancelled and
+     * {@link DeadlineExceededException} is thrown, which is answered with 504 Gateway Timeout.
+     *
+     * @return {@link TravelDetails} containing the fetched data.
+     * @throws InterruptedException      If interrupted while waiting for the response.
+     * @throws DeadlineExceededException If the request did not complete within the timeout.
+     */
+    public TravelDetails getAggregate() throws InterruptedException {
 
-            val flightsTask = scope.fork(() -> fetchList("/flights", Flight.class));
-            val hotelsTask = scope.fork(() -> fetchList("/hotels", Hotel.class));
-            val carsTask = scope.fork(() -> fetchList("/rentalcars", RentalCar.class));
+        log.info("Fetching travel details from the aggregate endpoint");
+        val start = OffsetDateTime.now();
+        val leg = travelMetrics.startLeg(AGGREGATE_PATH);
 
+        leg.running();
+        try (val scope = StructuredTaskScope.open(
+                StructuredTaskScope.Joiner.<TravelAggregate>awaitAllSuccessfulOrThrow(),
+                config -> config.withTimeout(gatewayConfig.getTimeout())
+        )) {
+            val task = scope.fork(() -> Tracing.span("leg " + AGGREGATE_PATH, () -> circuitBreaker.execute(
+                    AGGREGATE_PATH,
+                    () -> adaptiveLimiter.execute(AGGREGATE_PATH, this::fetchAggregate)
+            )));
             scope.join();
+            val aggregate = task.get();
+            leg.stop(LegOutcome.SUCCESS);
 
             val details = new TravelDetails(
-                    flightsTask.get(),
-                    hotelsTask.get(),
-                    carsTask.get()
+                    aggregate.flights(),
+                    aggregate.hotels(),
+                    aggregate.rentalCars(),
+                    new TravelStatus(LegStatus.SUCCESS, LegStatus.SUCCESS, LegStatus.SUCCESS),
+                    TravelAge.FRESH
             );
 
             val duration = Duration.between(start, OffsetDateTime.now());
             log.info("Fetched travel details in {} ms", duration.toMillis());
 
             return details;
+        } catch (StructuredTaskScope.TimeoutException e) {
+            leg.stop(LegOutcome.TIMEOUT);
+            log.warn("Deadline of {} ms exceeded, no travel details from the aggregate endpoint",
+                    gatewayConfig.getTimeout().toMillis());
+            throw new DeadlineExceededException(AGGREGATE_PATH, gatewayConfig.getTimeout());
+        } catch (StructuredTaskScope.FailedException e) {
+            leg.stop(LegOutcome.FAILURE);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            leg.stop(LegOutcome.FAILURE);
+            throw e;
+        } finally {
+            leg.stop(LegOutcome.CANCELLED);
+            leg.finished();
         }
     }
 
     /**
-     * Generic method to fetch a list of elements from a given path using {@link RestClient}.
+     * Stream travel details asynchronously one section at a time.
+     * <p>
+     * The three requests are executed concurrently in the same way as {@link #getAsync(TravelSearch)}.
+     * Each section is passed to the consumer as soon as its subtask completes,
+     * so the fastest leg is available first, and the sections are not retained.
+     * After the deadline, a {@link LegStatus#TIMED_OUT} section is passed to the consumer
+     * for each leg which was not passed to the consumer, so every leg is passed exactly once.
+     * <p>
+     * The consumer is invoked from the subtask threads and must be thread-safe.
+     *
+     * @param consumer Consumer which receives each section.
+     * @return {@link TravelStatus} with the status of each leg.
+     */
+    public TravelStatus streamAsync(Consumer<TravelSection> consumer) throws InterruptedException {
+
+        log.info("Streaming travel details asynchronously");
+        val start = OffsetDateTime.now();
+        val joiner = new TravelLegJoiner(leg -> consumer.accept(new TravelSection(
+                leg.name(),
+                leg.status(),
+                leg.duration().toMillis(),
+                leg.ageMs(),
+                leg.items()
+        )));
+
+        val flightsLeg = travelMetrics.startLeg(ALL_FLIGHTS.path());
+        val hotelsLeg = travelMetrics.startLeg(ALL_HOTELS.path());
+        val carsLeg = travelMetrics.startLeg(ALL_RENTAL_CARS.path());
+
+        try (val scopeSample = travelMetrics.startScope("stream"); val scope = openScope(joiner)) {
+
+            val flightsTask = scope.fork(() -> fetchLeg(ALL_FLIGHTS, flightsLeg));
+            val hotelsTask = scope.fork(() -> fetchLeg(ALL_HOTELS, hotelsLeg));
+            val carsTask = scope.fork(() -> fetchLeg(ALL_RENTAL_CARS, carsLeg));
+
+            joinWithDeadline(scope, flightsLeg, hotelsLeg, carsLeg);
+
+            val duration = Duration.between(start, OffsetDateTime.now());
+            if (joiner.markTimedOut(flightsTask)) {
+                consumer.accept(new TravelSection(FLIGHTS, LegStatus.TIMED_OUT, duration.toMillis(), null, List.of()));
+            }
+            if (joiner.markTimedOut(hotelsTask)) {
+                consumer.accept(new TravelSection(HOTELS, LegStatus.TIMED_OUT, duration.toMillis(), null, List.of()));
+            }
+            if (joiner.markTimedOut(carsTask)) {
+                consumer.accept(new TravelSection(RENTAL_CARS, LegStatus.TIMED_OUT, duration.toMillis(), null, List.of()));
+            }
+
+            val status = new TravelStatus(
+                    joiner.statusOf(flightsTask),
+                    joiner.statusOf(hotelsTask),
+                    joiner.statusOf(carsTask)
+            );
+            log.info("Streamed travel details in {} ms", duration.toMillis());
+            return status;
+        }
+    }
+
+    /**
+     * Get all flights through the same pipeline as the flights leg of {@link #getAsync()}.
+     * This allows the legs to be fanned out with other concurrency strategies,
+     * for example to compare the strategies in a benchmark.
+     *
+     * @return List of {@link Flight}.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    public List<Flight> getFlights() throws InterruptedException {
+        return fetchSingle(ALL_FLIGHTS);
+    }
+
+    /**
+     * Get all hotels through the same pipeline as the hotels leg of {@link #getAsync()}.
      *
-     * @param path        The path to fetch the data from.
-     * @param elementType The type of the elements in the list.
-     * @param <T>         The type of the elements in the list.
+     * @return List of {@link Hotel}.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    public List<Hotel> getHotels() throws InterruptedException {
+        return fetchSingle(ALL_HOTELS);
+    }
+
+    /**
+     * Get all rental cars through the same pipeline as the rental cars leg of {@link #getAsync()}.
+     *
+     * @return List of {@link RentalCar}.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    public List<RentalCar> getRentalCars() throws InterruptedException {
+        return fetchSingle(ALL_RENTAL_CARS);
+    }
+
+    /**
+     * Fetch a single leg outside of a scope. A leg which is interrupted
+     * before it has recorded an outcome is recorded as cancelled.
+     *
+     * @param query {@link LegQuery} of the leg.
+     * @param <T>   The type of the elements in the list.
+     * @return List of fetched or fallback elements.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    private <T> List<T> fetchSingle(LegQuery<T> query) throws InterruptedException {
+        val leg = travelMetrics.startLeg(query.path());
+        try {
+            return fetchLeg(query, leg).items();
+        } finally {
+            leg.stop(LegOutcome.CANCELLED);
+        }
+    }
+
+    /**
+     * Get the query for the flights leg.
+     *
+     * @param search {@link TravelSearch} with the filters.
+     * @return Query for the search endpoint, or for every flight if no flight filter is set.
+     */
+    private static LegQuery<Flight> flightsQuery(TravelSearch search) {
+        val query = LegQuery.of(FLIGHTS, "/flights/search", Flight.class)
+                .with("origin", search.origin())
+                .with("destination", search.destination())
+                .with("airline", search.airline());
+        return query.filtered() ? query : ALL_FLIGHTS;
+    }
+
+    /**
+     * Get the query for the hotels leg.
+     *
+     * @param search {@link TravelSearch} with the filters.
+     * @return Query for the search endpoint, or for every hotel if no hotel filter is set.
+     */
+    private static LegQuery<Hotel> hotelsQuery(TravelSearch search) {
+        val query = LegQuery.of(HOTELS, "/hotels/search", Hotel.class)
+                .with("location", search.location())
+                .with("minRating", search.minRating());
+        return query.filtered() ? query : ALL_HOTELS;
+    }
+
+    /**
+     * Get the query for the rental cars leg.
+     *
+     * @param search {@link TravelSearch} with the filters.
+     * @return Query for the search endpoint, or for every rental car if no rental car filter is set.
+     */
+    private static LegQuery<RentalCar> rentalCarsQuery(TravelSearch search) {
+        val query = LegQuery.of(RENTAL_CARS, "/rentalcars/search", RentalCar.class)
+                .with("location", search.location())
+                .with("company", search.company());
+        return query.filtered() ? query : ALL_RENTAL_CARS;
+    }
+
+    /**
+     * Open a {@link StructuredTaskScope} with the timeout from {@link GatewayConfig}.
+     *
+     * @param joiner The joiner for the scope.
+     * @return The opened scope.
+     */
+    private StructuredTaskScope<LegResult<?>, Void> openScope(TravelLegJoiner joiner) {
+        return StructuredTaskScope.open(joiner, config -> config.withTimeout(gatewayConfig.getTimeout()));
+    }
+
+    /**
+     * Wait for all subtasks in the scope to complete or for the deadline to pass.
+     * If the deadline passes, the remaining subtasks are cancelled.
+     * <p>
+     * The legs which have not recorded an outcome when the join returns did not complete.
+     * They are recorded as {@link LegOutcome#TIMEOUT} if the deadline passed,
+     * and as {@link LegOutcome#CANCELLED} if the scope was cancelled for another reason.
+     *
+     * @param scope The scope to join.
+     * @param legs  The legs forked in the scope.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private void joinWithDeadline(
+            StructuredTaskScope<LegResult<?>, Void> scope,
+            TravelMetrics.Leg... legs
+    ) throws InterruptedException {
+        var outcome = LegOutcome.CANCELLED;
+        try {
+            scope.join();
+        } catch (StructuredTaskScope.TimeoutException e) {
+            outcome = LegOutcome.TIMEOUT;
+            log.warn("Deadline of {} ms exceeded, returning partial travel details",
+                    gatewayConfig.getTimeout().toMillis());
+        } finally {
+            for (val leg : legs) {
+                leg.stop(outcome);
+            }
+        }
+    }
+
+    /**
+     * Fetch a single leg of the travel details with a fallback if it fails.
+     * The outcome of the leg is recorded with {@link TravelMetrics} if it succeeds, fails
+     * or is served from a fallback. The leg is fetched in its own span, which is a child
+     * of the span of the incoming request as the subtask inherits the trace context from the scope.
+     *
+     * @param query {@link LegQuery} of the leg.
+     * @param leg   {@link TravelMetrics.Leg} which records the outcome of the leg.
+     * @param <T>   The type of the elements in the list.
+     * @return {@link LegResult} with the fetched list.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    private <T> LegResult<T> fetchLeg(LegQuery<T> query, TravelMetrics.Leg leg) throws InterruptedException {
+        leg.running();
+        try {
+            val result = guarded(query, () -> Tracing.span("leg " + query.path(), () -> fetchHedged(query)));
+            leg.stop(result.status() == LegStatus.SUCCESS ? LegOutcome.SUCCESS : LegOutcome.FALLBACK);
+            return result;
+        } catch (RuntimeException e) {
+            // An exception caused by the interrupt of a cancelled or timed out scope is
+            // recorded by the owner of the scope as cancelled or timeout instead.
+            if (!Thread.currentThread().isInterrupted()) {
+                leg.stop(LegOutcome.FAILURE);
+            }
+            throw e;
+        } finally {
+            leg.finished();
+        }
+    }
+
+    /**
+     * Fetch a single leg and measure how long it took.
+     * <p>
+     * If the request fails, or is skipped because the circuit is open, the last known good list
+     * is returned as {@link LegStatus#STALE} together with its age. If there is no last known good
+     * list within the configured max age, an empty list is returned as {@link LegStatus#DEGRADED}.
+     * This way a failing dependency only degrades its own leg and does not hold up every request.
+     * <p>
+     * If the circuit breaker is disabled, or the thread was interrupted because
+     * the scope was cancelled, the exception is rethrown instead.
+     *
+     * @param query {@link LegQuery} of the leg.
+     * @param fetch Fetches the list from the target service.
+     * @param <T>   The type of the elements in the list.
+     * @return {@link LegResult} with the fetched or fallback list.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    private <T> LegResult<T> guarded(
+            LegQuery<T> query,
+            InterruptibleSupplier<List<T>> fetch
+    ) throws InterruptedException {
+        val settings = gatewayConfig.getCircuitBreaker();
+        val start = System.nanoTime();
+        try {
+            val items = fetch.get();
+            val duration = Duration.ofNanos(System.nanoTime() - start);
+            return new LegResult<>(query.name(), items, duration, LegStatus.SUCCESS, null);
+        } catch (RuntimeException e) {
+            if (!settings.enabled() || Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            return fallback(query, Duration.ofNanos(System.nanoTime() - start), e);
+        }
+    }
+
+    /**
+     * Get the fallback of a leg which could not be fetched.
+     *
+     * @param query    {@link LegQuery} of the leg.
+     * @param duration Duration spent trying to fetch the leg.
+     * @param cause    The reason the leg could not be fetched.
+     * @param <T>      The type of the elements in the list.
+     * @return {@link LegResult} with the last known good list, or an empty list if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> LegResult<T> fallback(LegQuery<T> query, Duration duration, RuntimeException cause) {
+        val key = query.key();
+        val snapshot = lastKnownGood.get(key, gatewayConfig.getCircuitBreaker().fallbackMaxAge());
+        if (snapshot.isEmpty()) {
+            log.warn("Failed to fetch {}, no last known good response available: {}", key, cause.getMessage());
+            return new LegResult<>(query.name(), List.of(), duration, LegStatus.DEGRADED, null);
+        }
+        val age = snapshot.get().age();
+        log.warn("Failed to fetch {}, serving last known good response from {} ms ago: {}",
+                key, age.toMillis(), cause.getMessage());
+        return new LegResult<>(query.name(), (List<T>) snapshot.get().items(), duration, LegStatus.STALE, age);
+    }
+
+    /**
+     * Fetch a list of elements for a given query through the response cache.
+     * Identical concurrent requests are collapsed with {@link SingleFlight}
+     * and the request is executed through the {@link CircuitBreaker} of its path.
+     *
+     * @param query {@link LegQuery} to fetch.
+     * @param <T>   The type of the elements in the list.
      * @return List of elements of type T.
+     * @throws InterruptedException If interrupted while waiting for the response.
      */
-    private <T> List<T> fetchList(String path, Class<T> elementType) {
-        log.info("Executing request HTTP GET {}", path);
+    private <T> List<T> fetchCached(LegQuery<T> query) throws InterruptedException {
+        val key = query.key();
+        return responseCache.get(key, () -> singleFlight.execute(key, () -> fetchRemote(query, () -> fetchList(query))));
+    }
 
-        ParameterizedTypeReference<List<T>> listType = ParameterizedTypeReference.forType(
-                ResolvableType.forClassWithGenerics(List.class, elementType).getType()
-        );
+    /**
+     * Fetch a list of elements for a given query through the response cache.
+     * Identical concurrent requests are collapsed with {@link SingleFlight}, and the
+     * request is executed with hedging through the {@link CircuitBreaker} of its path.
+     * Each request, including a hedge, is admitted by the {@link AdaptiveLimiter} of its path.
+     *
+     * @param query {@link LegQuery} to fetch.
+     * @param <T>   The type of the elements in the list.
+     * @return List of elements of type T.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    private <T> List<T> fetchHedged(LegQuery<T> query) throws InterruptedException {
+        val key = query.key();
+        val path = query.path();
+        return responseCache.get(key, () -> singleFlight.execute(
+                key,
+                () -> fetchRemote(query, () -> hedgedRequestExecutor.execute(
+                        path,
+                        () -> adaptiveLimiter.execute(path, () -> fetchList(query))
+                ))
+        ));
+    }
+
+    /**
+     * Execute a request to the target service through the {@link CircuitBreaker} of its path.
+     * <p>
+     * The circuit breaker sits below the response cache and request collapsing, so it only
+     * counts requests which actually reach the target service. A cached response or a request
+     * collapsed into another is neither a success nor a failure of the target service.
+     * A successfully fetched list is kept as the last known good list of the query.
+     *
+     * @param query   {@link LegQuery} of the request.
+     * @param request The request to the target service.
+     * @param <T>     The type of the elements in the list.
+     * @return List of elements of type T.
+     * @throws InterruptedException If interrupted while waiting for the response.
+     */
+    private <T> List<T> fetchRemote(LegQuery<T> query, InterruptibleSupplier<List<T>> request) throws InterruptedException {
+        val items = circuitBreaker.execute(query.path(), request);
+        if (gatewayConfig.getCircuitBreaker().enabled()) {
+            lastKnownGood.store(query.key(), items);
+        }
+        return items;
+    }
+
+    /**
+     * Generic method to fetch a list of elements for a given query using {@link RestClient}.
+     * The list is fetched with a conditional request, see {@link #fetchConditional(LegQuery)}.
+     * <p>
+     * If a page size is configured and the query has no filters, the list is instead
+     * fetched one page at a time from the /page endpoint with {@link #streamPages}.
+     * <p>
+     * A filtered query is always fetched from the search endpoint, following the cursors until the last page.
+     * This has two costs compared to an unfiltered query. The configured page size does not apply,
+     * as pages of the search page size are requested instead, so a search with more matches takes
+     * one round trip per page. And the search is never a conditional request, so the matches are
+     * downloaded and decoded again on every request, even when they have not changed.
+     *
+     * @param query {@link LegQuery} to fetch.
+     * @param <T>   The type of the elements in the list.
+     * @return List of elements of type T.
+     */
+    private <T> List<T> fetchList(LegQuery<T> query) {
+        if (query.filtered()) {
+            val list = new ArrayList<T>();
+            val pageSize = gatewayConfig.getSearchPageSize();
+            streamPages(query.path(), query.filters(), pageSize, query.elementType(), list::add);
+            return list;
+        }
+        if (gatewayConfig.getPageSize() > 0) {
+            val list = new ArrayList<T>();
+            val pageSize = gatewayConfig.getPageSize();
+            streamPages(query.path() + "/page", query.filters(), pageSize, query.elementType(), list::add);
+            return list;
+        }
+        return fetchConditional(query);
+    }
+
+    /**
+     * Fetch all travel options from the aggregate endpoint using {@link RestClient}.
+     *
+     * @return {@link TravelAggregate} with all three lists.
+     */
+    private TravelAggregate fetchAggregate() {
+        log.info("Executing request HTTP GET {}", AGGREGATE_PATH);
+
+        return restClient.get()
+                .uri(AGGREGATE_PATH)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange((request, response) -> {
+                    throwIfError(AGGREGATE_PATH, response);
+                    return jsonMapper.readValue(response.getBody(), TravelAggregate.class);
+                });
+    }
+
+    /**
+     * Generic method to fetch the elements of a JSON array for a query without filters using {@link RestClient}.
+     * <p>
+     * If a list with an ETag was previously received for the query, the ETag is sent as If-None-Match.
+     * When the target service responds with 304 Not Modified, the previously decoded list is
+     * returned as is, so the unchanged list is neither downloaded nor decoded again.
+     * Otherwise, the received list is stored in {@link EntityTagCache} together with its ETag.
+     * The list is unmodifiable, so the same instance is kept by {@link ResponseCache}
+     * and {@link LastKnownGood} instead of a copy each.
+     * <p>
+     * The response body is parsed incrementally with the Jackson streaming API,
+     * and each element is added to the list as soon as it has been decoded,
+     * so neither the response body nor an intermediate tree is held in memory.
+     *
+     * @param query {@link LegQuery} to fetch.
+     * @param <T>   The type of the elements in the array.
+     * @return List of elements of type T.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> fetchConditional(LegQuery<T> query) {
+        val key = query.key();
+        val tagged = entityTagCache.get(key);
+        log.info("Executing request HTTP GET {}", key);
 
         return restClient.get()
-                .uri(path)
-                .retrieve()
-                .body(listType);
+                .uri(query.path())
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> tagged.ifPresent(previous -> headers.setIfNoneMatch(previous.etag())))
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        val previous = tagged.orElseThrow(() -> new IllegalStateException(
+                                "HTTP GET " + key + " was not modified, but no ETag was sent"
+                        ));
+                        log.info("Response for {} not modified, reusing the previously decoded list", key);
+                        return (List<T>) previous.items();
+                    }
+                    throwIfError(key, response);
+                    val list = new ArrayList<T>();
+                    try (val elements = jsonMapper.readerFor(query.elementType()).<T>readValues(response.getBody())) {
+                        while (elements.hasNext()) {
+                            list.add(elements.next());
+                        }
+                    }
+                    val items = List.copyOf(list);
+                    entityTagCache.store(key, response.getHeaders().getETag(), items);
+                    return items;
+                });
+    }
+
+    /**
+     * Generic method to stream the elements of a paginated endpoint using {@link RestClient}.
+     * <p>
+     * The pages are fetched sequentially from the given endpoint with the filters as encoded
+     * query parameters, passing the cursor of each page to retrieve the next one until the
+     * last page is reached. Each page is bounded by the given page size, or by the default
+     * page size of the target service if none is given, so no single response
+     * from the target service grows with the size of the table.
+     * <p>
+     * This only bounds the size of each response. The next page can only be requested once
+     * the cursor of the previous page is known, so the pages are fetched one round trip after
+     * another, and the caller still collects every element of the table into a single list.
+     *
+     * @param path        The path of the paginated endpoint.
+     * @param filters     Filters sent as query parameters with every page.
+     * @param pageSize    Number of elements requested per page, 0 uses the default of the target service.
+     * @param elementType The type of the elements on the pages.
+     * @param consumer    Consumer which receives each element of each page.
+     * @param <T>         The type of the elements on the pages.
+     */
+    private <T> void streamPages(
+            String path,
+            Map<String, String> filters,
+            int pageSize,
+            Class<T> elementType,
+            Consumer<? super T> consumer
+    ) {
+        val pageType = jsonMapper.getTypeFactory().constructParametricType(CursorPage.class, elementType);
+        val limit = Optional.of(pageSize).filter(size -> size > 0);
+        UUID cursor = null;
+        do {
+            val after = Optional.ofNullable(cursor);
+            log.info("Executing request HTTP GET {} with {} after: {}", path, filters, cursor);
+
+            CursorPage<T> page = restClient.get()
+                    .uri(builder -> {
+                        builder.path(path)
+                                .queryParamIfPresent("limit", limit)
+                                .queryParamIfPresent("after", after);
+                        filters.keySet().forEach(filter -> builder.queryParam(filter, "{" + filter + "}"));
+                        return builder.build(filters);
+                    })
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange((request, response) -> {
+                        throwIfError(path, response);
+                        return jsonMapper.readerFor(pageType).readValue(response.getBody());
+                    });
+
+            page.items().forEach(consumer);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+    }
+
+    /**
+     * Throw an {@link HttpClientErrorException} or {@link HttpServerErrorException} if the response has an
+     * error status. The exception is created with the subtype matching the status, for example
+     * {@link HttpServerErrorException.ServiceUnavailable}, the same way the default status handler does.
+     *
+     * @param path     The path which was requested.
+     * @param response The response to check.
+     * @throws IOException If the response could not be read.
+     */
+    private static void throwIfError(String path, ClientHttpResponse response) throws IOException {
+        val status = response.getStatusCode();
+        if (!status.isError()) {
+            return;
+        }
+        val message = "HTTP GET " + path + " failed with status " + status;
+        val body = response.getBody().readAllBytes();
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(
+                    message, status, response.getStatusText(), response.getHeaders(), body, null
+            );
+        }
+        throw HttpServerErrorException.create(
+                message, status, response.getStatusText(), response.getHeaders(), body, null
+        );
     }
 }
@@ -0,0 +1,111 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.model.TravelDetails;
+import com.github.thorlauridsen.service.ResponseCache;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import static com.github.thorlauridsen.controller.BaseEndpoint.TRAVEL_BASE_ENDPOINT;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class for testing the response cache of the gateway.
+ * The cache is disabled in the test profile, so it is enabled for this test class.
+ */
+@ActiveProfiles("test")
+@AutoConfigureRestTestClient
+@SpringBootTest(properties = {
+        "gateway.settings.targetUrl=http://localhost:9562",
+        "gateway.settings.cache.enabled=true",
+        "gateway.settings.cache.maxElements=10"
+})
+class TravelCacheTest {
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    private static final WireMockServer WIREMOCK = new WireMockServer(9562);
+
+    @BeforeAll
+    static void setupWireMock() {
+        WIREMOCK.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        WIREMOCK.stop();
+    }
+
+    @Test
+    void get_travel_details_twice_is_served_from_cache() {
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/hotels"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(TravelTestData.hotels))));
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/flights"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(TravelTestData.flights))));
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/rentalcars"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(TravelTestData.rentalCars))));
+
+        for (int i = 0; i < 2; i++) {
+            val details = restTestClient.get()
+                    .uri(TRAVEL_BASE_ENDPOINT + "/sync")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(TravelDetails.class)
+                    .returnResult()
+                    .getResponseBody();
+
+            assertEquals(TravelTestData.travelDetails, details);
+        }
+
+        WIREMOCK.verify(1, getRequestedFor(urlEqualTo("/flights")));
+        WIREMOCK.verify(1, getRequestedFor(urlEqualTo("/hotels")));
+        WIREMOCK.verify(1, getRequestedFor(urlEqualTo("/rentalcars")));
+    }
+
+    @Test
+    void cached_lists_are_unmodifiable_and_bounded_by_element_count() throws InterruptedException {
+        val loads = new AtomicInteger();
+        val first = responseCache.get("/first", () -> {
+            loads.incrementAndGet();
+            return new ArrayList<>(Collections.nCopies(6, "first"));
+        });
+        assertThrows(UnsupportedOperationException.class, () -> first.add("modified"));
+        assertSame(first, responseCache.get("/first", () -> List.of("reloaded")));
+
+        responseCache.get("/second", () -> new ArrayList<>(Collections.nCopies(6, "second")));
+
+        val reloaded = responseCache.get("/first", () -> {
+            loads.incrementAndGet();
+            return List.of("reloaded");
+        });
+        assertEquals(List.of("reloaded"), reloaded);
+        assertEquals(2, loads.get());
+    }
+}
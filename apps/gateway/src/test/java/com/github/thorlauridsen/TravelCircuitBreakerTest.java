@@ -0,0 +1,183 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.model.LegStatus;
+import com.github.thorlauridsen.service.CircuitBreaker;
+import com.github.thorlauridsen.service.LimitExceededException;
+import com.github.thorlauridsen.service.TravelService;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import lombok.val;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import tools.jackson.databind.json.JsonMapper;
+
+import static com.github.thorlauridsen.controller.BaseEndpoint.TRAVEL_BASE_ENDPOINT;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the circuit breaker and fallback of each leg of the travel details.
+ * Hedged requests are disabled so that each leg is only requested once.
+ * The tests are ordered as the last known good lists and the state of the circuits are kept between tests.
+ */
+@ActiveProfiles("test")
+@AutoConfigureRestTestClient
+@SpringBootTest(properties = {
+        "gateway.settings.targetUrl=http://localhost:9565",
+        "gateway.settings.hedge.enabled=false",
+        "gateway.settings.circuitBreaker.failureThreshold=2",
+        "gateway.settings.circuitBreaker.openDuration=1m"
+})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TravelCircuitBreakerTest {
+
+    @Autowired
+    private TravelService travelService;
+
+    @Autowired
+    private CircuitBreaker circuitBreaker;
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private static final WireMockServer WIREMOCK = new WireMockServer(9565);
+
+    @BeforeAll
+    static void setupWireMock() {
+        WIREMOCK.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        WIREMOCK.stop();
+    }
+
+    @BeforeEach
+    void resetWireMock() {
+        WIREMOCK.resetAll();
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/hotels"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(TravelTestData.hotels))));
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/flights"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(TravelTestData.flights))));
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/rentalcars"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(TravelTestData.rentalCars))));
+    }
+
+    @Test
+    @Order(1)
+    void get_travel_details_async_failed_leg_without_previous_response_is_degraded() throws InterruptedException {
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/rentalcars"))
+                .willReturn(WireMock.serverError()));
+
+        val details = travelService.getAsync();
+
+        assertEquals(TravelTestData.flights, details.flights());
+        assertEquals(TravelTestData.hotels, details.hotels());
+        assertTrue(details.rentalCars().isEmpty());
+        assertEquals(LegStatus.SUCCESS, details.status().flights());
+        assertEquals(LegStatus.DEGRADED, details.status().rentalCars());
+        assertNull(details.age().rentalCarsMs());
+    }
+
+    @Test
+    @Order(2)
+    void get_travel_details_async_failed_leg_is_served_from_last_known_good() throws InterruptedException {
+        val fresh = travelService.getAsync();
+        assertEquals(TravelTestData.travelDetails, fresh);
+
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/hotels"))
+                .willReturn(WireMock.serverError()));
+
+        val details = travelService.getAsync();
+
+        assertEquals(TravelTestData.flights, details.flights());
+        assertEquals(TravelTestData.hotels, details.hotels());
+        assertEquals(TravelTestData.rentalCars, details.rentalCars());
+        assertEquals(LegStatus.STALE, details.status().hotels());
+        assertNotNull(details.age().hotelsMs());
+        assertNull(details.age().flightsMs());
+    }
+
+    @Test
+    @Order(3)
+    void get_travel_details_async_open_circuit_skips_request() throws InterruptedException {
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/hotels"))
+                .willReturn(WireMock.serverError()));
+
+        val failed = travelService.getAsync();
+        assertEquals(LegStatus.STALE, failed.status().hotels());
+        WIREMOCK.verify(1, getRequestedFor(urlEqualTo("/hotels")));
+
+        val skipped = travelService.getAsync();
+        assertEquals(LegStatus.STALE, skipped.status().hotels());
+        assertEquals(TravelTestData.hotels, skipped.hotels());
+        assertEquals(LegStatus.SUCCESS, skipped.status().flights());
+        WIREMOCK.verify(1, getRequestedFor(urlEqualTo("/hotels")));
+        WIREMOCK.verify(2, getRequestedFor(urlEqualTo("/flights")));
+    }
+
+    @Test
+    @Order(4)
+    void get_travel_details_aggregate_failure_keeps_status_subtype() {
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/aggregate"))
+                .willReturn(WireMock.serviceUnavailable()));
+
+        assertThrows(HttpServerErrorException.ServiceUnavailable.class, travelService::getAggregate);
+
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/aggregate"))
+                .willReturn(WireMock.notFound()));
+
+        assertThrows(HttpClientErrorException.NotFound.class, travelService::getAggregate);
+    }
+
+    @Test
+    @Order(5)
+    void limiter_rejections_do_not_open_the_circuit() throws InterruptedException {
+        val path = "/limited";
+
+        for (var i = 0; i < 3; i++) {
+            assertThrows(LimitExceededException.class, () -> circuitBreaker.execute(path, () -> {
+                throw new LimitExceededException(path, 1);
+            }));
+        }
+
+        assertEquals("accepted", circuitBreaker.execute(path, () -> "accepted"));
+    }
+
+    @Test
+    @Order(6)
+    void get_travel_details_aggregate_open_circuit_is_service_unavailable() {
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/aggregate"))
+                .willReturn(WireMock.serviceUnavailable()));
+
+        restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/aggregate")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(503);
+
+        WIREMOCK.verify(0, getRequestedFor(urlEqualTo("/aggregate")));
+    }
+}
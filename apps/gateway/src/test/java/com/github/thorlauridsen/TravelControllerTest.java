@@ -1,8 +1,17 @@
 package com.github.thorlauridsen;
 
+import com.github.thorlauridsen.model.CursorPage;
+import com.github.thorlauridsen.model.LegStatus;
+import com.github.thorlauridsen.model.TravelAggregate;
 import com.github.thorlauridsen.model.TravelDetails;
+import com.github.thorlauridsen.model.TravelSection;
+import com.github.thorlauridsen.model.TravelStatus;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.val;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -11,15 +20,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.client.RestTestClient;
 import tools.jackson.databind.json.JsonMapper;
 
 import static com.github.thorlauridsen.controller.BaseEndpoint.TRAVEL_BASE_ENDPOINT;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ActiveProfiles("test")
 @AutoConfigureRestTestClient
@@ -64,6 +82,77 @@ class TravelControllerTest {
         assertEquals(TravelTestData.travelDetails, details);
     }
 
+    @Test
+    void get_travel_details_async_deadline_exceeded_returns_partial_result() {
+        val hotelsJson = jsonMapper.writeValueAsString(TravelTestData.hotels);
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/hotels"))
+                .willReturn(okJson(hotelsJson).withFixedDelay(3000)));
+
+        val details = restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/async")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TravelDetails.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(details);
+        assertEquals(TravelTestData.flights, details.flights());
+        assertTrue(details.hotels().isEmpty());
+        assertEquals(TravelTestData.rentalCars, details.rentalCars());
+        assertEquals(
+                new TravelStatus(LegStatus.SUCCESS, LegStatus.TIMED_OUT, LegStatus.SUCCESS),
+                details.status()
+        );
+    }
+
+    @Test
+    void get_travel_details_async_propagates_trace_context() {
+        val traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+        restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/async")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("traceparent", "00-" + traceId + "-00f067aa0ba902b7-01")
+                .exchange()
+                .expectStatus().isOk();
+
+        for (val path : List.of("/flights", "/hotels", "/rentalcars")) {
+            WIREMOCK.verify(getRequestedFor(urlEqualTo(path))
+                    .withHeader("traceparent", matching("00-" + traceId + "-[0-9a-f]{16}-01")));
+        }
+    }
+
+    @Test
+    void get_travel_details_async_reuses_list_when_not_modified() {
+        val flightsJson = jsonMapper.writeValueAsString(TravelTestData.flights);
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/flights"))
+                .willReturn(okJson(flightsJson).withHeader(HttpHeaders.ETAG, "\"v1\"")));
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/flights"))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\""))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(304).withHeader(HttpHeaders.ETAG, "\"v1\"")));
+
+        for (var i = 0; i < 2; i++) {
+            val details = restTestClient.get()
+                    .uri(TRAVEL_BASE_ENDPOINT + "/async")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(TravelDetails.class)
+                    .returnResult()
+                    .getResponseBody();
+
+            assertEquals(TravelTestData.travelDetails, details);
+        }
+
+        WIREMOCK.verify(1, getRequestedFor(urlEqualTo("/flights"))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\"")));
+        WIREMOCK.verify(0, getRequestedFor(urlEqualTo("/hotels"))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, matching(".*")));
+    }
+
     @Test
     void get_travel_details_sync_success() {
         val details = restTestClient.get()
@@ -78,6 +167,214 @@ class TravelControllerTest {
         assertEquals(TravelTestData.travelDetails, details);
     }
 
+    @Test
+    void get_travel_details_sync_pushes_filters_down_per_leg() {
+        val flights = List.of(TravelTestData.flights.getLast());
+        WIREMOCK.stubFor(WireMock.get(urlPathEqualTo("/flights/search"))
+                .withQueryParam("airline", equalTo("Airline C"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(new CursorPage<>(flights, null)))));
+
+        val details = restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/sync?airline={airline}", "Airline C")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TravelDetails.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(details);
+        assertEquals(flights, details.flights());
+        assertEquals(TravelTestData.hotels, details.hotels());
+        assertEquals(TravelTestData.rentalCars, details.rentalCars());
+        WIREMOCK.verify(0, getRequestedFor(urlEqualTo("/flights")));
+        WIREMOCK.verify(1, getRequestedFor(urlEqualTo("/hotels")));
+    }
+
+    @Test
+    void get_travel_details_sync_follows_search_cursor_to_last_page() {
+        val first = TravelTestData.flights.getFirst();
+        val last = TravelTestData.flights.getLast();
+        val cursor = UUID.randomUUID();
+        WIREMOCK.stubFor(WireMock.get(urlPathEqualTo("/flights/search"))
+                .withQueryParam("airline", equalTo("Airline D"))
+                .withQueryParam("after", absent())
+                .willReturn(okJson(jsonMapper.writeValueAsString(new CursorPage<>(List.of(first), cursor)))));
+        WIREMOCK.stubFor(WireMock.get(urlPathEqualTo("/flights/search"))
+                .withQueryParam("airline", equalTo("Airline D"))
+                .withQueryParam("after", equalTo(cursor.toString()))
+                .willReturn(okJson(jsonMapper.writeValueAsString(new CursorPage<>(List.of(last), null)))));
+
+        val details = restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/sync?airline={airline}", "Airline D")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TravelDetails.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(details);
+        assertEquals(List.of(first, last), details.flights());
+        WIREMOCK.verify(2, getRequestedFor(urlPathEqualTo("/flights/search"))
+                .withQueryParam("airline", equalTo("Airline D")));
+    }
+
+    @Test
+    void get_travel_details_aggregate_success() {
+        val aggregate = new TravelAggregate(TravelTestData.flights, TravelTestData.hotels, TravelTestData.rentalCars);
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/aggregate"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(aggregate))));
+
+        val details = restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/aggregate")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TravelDetails.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(TravelTestData.travelDetails, details);
+        WIREMOCK.verify(1, getRequestedFor(urlEqualTo("/aggregate")));
+        WIREMOCK.verify(0, getRequestedFor(urlEqualTo("/flights")));
+    }
+
+    @Test
+    void get_travel_details_aggregate_exceeding_timeout_is_gateway_timeout() {
+        val aggregate = new TravelAggregate(TravelTestData.flights, TravelTestData.hotels, TravelTestData.rentalCars);
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/aggregate"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(aggregate)).withFixedDelay(3000)));
+
+        restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/aggregate")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(504);
+    }
+
+    @Test
+    void get_travel_details_async_pushes_filters_down() {
+        val flights = List.of(TravelTestData.flights.getFirst());
+        val hotels = List.of(TravelTestData.hotels.getFirst());
+        val rentalCars = List.of(TravelTestData.rentalCars.getFirst());
+
+        WIREMOCK.stubFor(WireMock.get(urlPathEqualTo("/flights/search"))
+                .withQueryParam("origin", equalTo("Origin A"))
+                .withQueryParam("destination", equalTo("Destination A"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(new CursorPage<>(flights, null)))));
+        WIREMOCK.stubFor(WireMock.get(urlPathEqualTo("/hotels/search"))
+                .withQueryParam("location", equalTo("Location A"))
+                .withQueryParam("minRating", equalTo("4.5"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(new CursorPage<>(hotels, null)))));
+        WIREMOCK.stubFor(WireMock.get(urlPathEqualTo("/rentalcars/search"))
+                .withQueryParam("location", equalTo("Location A"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(new CursorPage<>(rentalCars, null)))));
+
+        val details = restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/async?origin={origin}&destination={destination}"
+                                + "&location={location}&minRating={minRating}",
+                        "Origin A", "Destination A", "Location A", 4.5)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TravelDetails.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(details);
+        assertEquals(flights, details.flights());
+        assertEquals(hotels, details.hotels());
+        assertEquals(rentalCars, details.rentalCars());
+        assertEquals(
+                new TravelStatus(LegStatus.SUCCESS, LegStatus.SUCCESS, LegStatus.SUCCESS),
+                details.status()
+        );
+        WIREMOCK.verify(0, getRequestedFor(urlEqualTo("/flights")));
+    }
+
+    @Test
+    void get_travel_details_stream_success() {
+        val body = restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        val sections = body.lines()
+                .filter(line -> !line.isBlank())
+                .map(line -> jsonMapper.readValue(line, TravelSection.class))
+                .collect(Collectors.toMap(TravelSection::name, section -> section));
+
+        assertEquals(3, sections.size());
+        assertSection(sections, "flights", TravelTestData.flights);
+        assertSection(sections, "hotels", TravelTestData.hotels);
+        assertSection(sections, "rentalCars", TravelTestData.rentalCars);
+    }
+
+    @Test
+    void get_travel_details_stream_writes_each_leg_once_on_its_own_line() {
+        val hotelsJson = jsonMapper.writeValueAsString(TravelTestData.hotels);
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/hotels"))
+                .willReturn(okJson(hotelsJson).withFixedDelay(3000)));
+
+        val body = restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        val sections = body.lines()
+                .filter(line -> !line.isBlank())
+                .map(line -> jsonMapper.readValue(line, TravelSection.class))
+                .toList();
+
+        assertEquals(3, sections.size());
+        assertEquals(3, sections.stream().map(TravelSection::name).distinct().count());
+        val hotels = sections.stream().filter(section -> section.name().equals("hotels")).findFirst();
+        assertEquals(LegStatus.TIMED_OUT, hotels.map(TravelSection::status).orElse(null));
+    }
+
+    @Test
+    void get_travel_details_events_success() {
+        val body = restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/events")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        assertTrue(body.contains("event:flights"));
+        assertTrue(body.contains("event:hotels"));
+        assertTrue(body.contains("event:rentalCars"));
+        assertTrue(body.trim().lines().anyMatch(line -> line.equals("event:complete")));
+    }
+
+    /**
+     * Assert that a streamed section completed successfully with the expected items.
+     * The items are compared through their JSON representation as they are deserialized as maps.
+     */
+    private void assertSection(Map<String, TravelSection> sections, String name, Object expectedItems) {
+        val section = sections.get(name);
+        assertNotNull(section);
+        assertEquals(LegStatus.SUCCESS, section.status());
+        assertEquals(
+                jsonMapper.writeValueAsString(expectedItems),
+                jsonMapper.writeValueAsString(section.items())
+        );
+    }
+
     /**
      * Setup WireMock stubs for the external services.
      */
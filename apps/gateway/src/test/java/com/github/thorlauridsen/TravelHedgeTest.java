@@ -0,0 +1,108 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.service.HedgedRequestExecutor;
+import com.github.thorlauridsen.service.LatencyTracker;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing hedged requests and the latency window they are based on.
+ * The executor is called directly with requests that block or fail on demand,
+ * and the latency of each path is recorded up front to control the hedge delay.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "gateway.settings.hedge.windowSize=10",
+        "gateway.settings.hedge.minSamples=5",
+        "gateway.settings.hedge.minDelay=10ms",
+        "gateway.settings.hedge.budgetRatio=1"
+})
+class TravelHedgeTest {
+
+    @Autowired
+    private HedgedRequestExecutor hedgedRequestExecutor;
+
+    @Autowired
+    private LatencyTracker latencyTracker;
+
+    @Test
+    void percentile_is_calculated_over_the_most_recent_samples() {
+        val path = "/percentile";
+        for (var i = 1; i <= 10; i++) {
+            latencyTracker.record(path, Duration.ofMillis(i));
+        }
+
+        assertEquals(Optional.of(Duration.ofMillis(5)), latencyTracker.percentile(path, 50, 5));
+        assertEquals(Optional.of(Duration.ofMillis(10)), latencyTracker.percentile(path, 95, 5));
+        assertEquals(Optional.of(Duration.ofMillis(1)), latencyTracker.percentile(path, 0, 5));
+        assertEquals(Optional.empty(), latencyTracker.percentile(path, 50, 11));
+        assertEquals(Optional.empty(), latencyTracker.percentile("/unknown", 50, 0));
+
+        for (var i = 0; i < 10; i++) {
+            latencyTracker.record(path, Duration.ofMillis(100));
+        }
+        assertEquals(Optional.of(Duration.ofMillis(100)), latencyTracker.percentile(path, 50, 5));
+    }
+
+    @Test
+    void hedge_wins_and_slow_request_is_cancelled() throws InterruptedException {
+        val path = "/slow";
+        recordLatency(path, Duration.ofMillis(10));
+        val attempts = new AtomicInteger();
+        val cancelled = new CountDownLatch(1);
+
+        val response = hedgedRequestExecutor.execute(path, () -> {
+            if (attempts.incrementAndGet() > 1) {
+                return "hedge";
+            }
+            try {
+                Thread.sleep(Duration.ofSeconds(10));
+                return "slow";
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+                throw e;
+            }
+        });
+
+        assertEquals("hedge", response);
+        assertEquals(2, attempts.get());
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failure_before_hedge_is_sent_fails_fast() {
+        val path = "/failing";
+        recordLatency(path, Duration.ofSeconds(5));
+        val attempts = new AtomicInteger();
+        val start = System.nanoTime();
+
+        assertThrows(IllegalStateException.class, () -> hedgedRequestExecutor.execute(path, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Upstream failed");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+    }
+
+    /**
+     * Record enough samples of the given latency for the path to be hedged.
+     */
+    private void recordLatency(String path, Duration latency) {
+        for (var i = 0; i < 5; i++) {
+            latencyTracker.record(path, latency);
+        }
+    }
+}
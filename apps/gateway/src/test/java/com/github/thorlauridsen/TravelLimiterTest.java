@@ -0,0 +1,113 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.service.AdaptiveLimiter;
+import com.github.thorlauridsen.service.LimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the adaptive concurrency limiter.
+ * The limiter is called directly with requests that block or fail on demand.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "gateway.settings.limiter.initialLimit=4",
+        "gateway.settings.limiter.minLimit=1",
+        "gateway.settings.limiter.backoffRatio=0.5",
+        "gateway.settings.limiter.maxWait=10ms"
+})
+class TravelLimiterTest {
+
+    @Autowired
+    private AdaptiveLimiter adaptiveLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void request_is_rejected_when_limit_is_reached() throws Exception {
+        val path = "/rejected";
+        val started = new CountDownLatch(4);
+        val finish = new CountDownLatch(1);
+
+        try (val executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            val running = new Future<?>[4];
+            for (var i = 0; i < running.length; i++) {
+                running[i] = executor.submit(() -> adaptiveLimiter.execute(path, () -> {
+                    started.countDown();
+                    finish.await();
+                    return "done";
+                }));
+            }
+            started.await();
+
+            assertThrows(LimitExceededException.class, () -> adaptiveLimiter.execute(path, () -> "rejected"));
+            assertEquals(4, meterRegistry.get("travel.limiter.inflight").tag("path", path).gauge().value());
+            assertEquals(1, meterRegistry.get("travel.limiter.rejected").tag("path", path).counter().count());
+
+            finish.countDown();
+            for (val future : running) {
+                assertEquals("done", future.get());
+            }
+        }
+        assertEquals("accepted", adaptiveLimiter.execute(path, () -> "accepted"));
+        assertEquals(0, meterRegistry.get("travel.limiter.inflight").tag("path", path).gauge().value());
+    }
+
+    @Test
+    void limit_decreases_when_request_fails() throws InterruptedException {
+        val path = "/failing";
+        assertEquals(4, adaptiveLimiter.limitOf(path));
+
+        assertThrows(IllegalStateException.class, () -> adaptiveLimiter.execute(path, () -> {
+            throw new IllegalStateException("Upstream failed");
+        }));
+        assertEquals(2, adaptiveLimiter.limitOf(path));
+
+        assertThrows(IllegalStateException.class, () -> adaptiveLimiter.execute(path, () -> {
+            throw new IllegalStateException("Upstream failed");
+        }));
+        assertThrows(IllegalStateException.class, () -> adaptiveLimiter.execute(path, () -> {
+            throw new IllegalStateException("Upstream failed");
+        }));
+        assertEquals(1, adaptiveLimiter.limitOf(path));
+        assertEquals("accepted", adaptiveLimiter.execute(path, () -> "accepted"));
+    }
+
+    @Test
+    void limit_is_unchanged_when_request_is_interrupted() throws Exception {
+        val path = "/interrupted";
+        val started = new CountDownLatch(1);
+
+        try (val executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            val running = executor.submit(() -> adaptiveLimiter.execute(path, () -> {
+                started.countDown();
+                Thread.sleep(Duration.ofMinutes(1));
+                return "done";
+            }));
+            started.await();
+            running.cancel(true);
+        }
+        assertEquals(4, adaptiveLimiter.limitOf(path));
+
+        assertThrows(IllegalStateException.class, () -> adaptiveLimiter.execute(path, () -> {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the response");
+        }));
+        assertTrue(Thread.interrupted());
+        assertEquals(4, adaptiveLimiter.limitOf(path));
+        assertEquals(0, meterRegistry.get("travel.limiter.inflight").tag("path", path).gauge().value());
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.model.LegStatus;
+import com.github.thorlauridsen.service.TravelService;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.StructuredTaskScope;
+import lombok.val;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class for testing the metrics recorded for each leg of the travel details.
+ * Hedged requests are disabled so that a slow leg is only requested once.
+ * The circuit breaker is disabled so that a failed leg fails the travel details.
+ * The service is called directly so the exception of a failed leg can be asserted.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "gateway.settings.targetUrl=http://localhost:9564",
+        "gateway.settings.hedge.enabled=false",
+        "gateway.settings.circuitBreaker.enabled=false"
+})
+class TravelMetricsTest {
+
+    @Autowired
+    private TravelService travelService;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final WireMockServer WIREMOCK = new WireMockServer(9564);
+
+    @BeforeAll
+    static void setupWireMock() {
+        WIREMOCK.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        WIREMOCK.stop();
+    }
+
+    @BeforeEach
+    void resetWireMock() {
+        WIREMOCK.resetAll();
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/hotels"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(TravelTestData.hotels)).withFixedDelay(3000)));
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/flights"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(TravelTestData.flights))));
+    }
+
+    @Test
+    void get_travel_details_async_records_failure_and_cancellation() {
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/rentalcars"))
+                .willReturn(WireMock.serverError().withFixedDelay(300)));
+
+        val flightsBefore = legCount("/flights", "success");
+        val rentalCarsBefore = legCount("/rentalcars", "failure");
+        val hotelsBefore = legCount("/hotels", "cancelled");
+
+        assertThrows(StructuredTaskScope.FailedException.class, travelService::getAsync);
+
+        assertEquals(flightsBefore + 1, legCount("/flights", "success"));
+        assertEquals(rentalCarsBefore + 1, legCount("/rentalcars", "failure"));
+        assertEquals(hotelsBefore + 1, legCount("/hotels", "cancelled"));
+        assertEquals(0, meterRegistry.get("travel.leg.inflight").tag("path", "/hotels").gauge().value());
+    }
+
+    @Test
+    void get_travel_details_async_records_timeout() throws InterruptedException {
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo("/rentalcars"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(TravelTestData.rentalCars))));
+
+        val hotelsBefore = legCount("/hotels", "timeout");
+        val scopesBefore = meterRegistry.find("travel.scope").tag("operation", "async").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+
+        val details = travelService.getAsync();
+
+        assertEquals(LegStatus.TIMED_OUT, details.status().hotels());
+        assertEquals(hotelsBefore + 1, legCount("/hotels", "timeout"));
+        assertEquals(scopesBefore + 1, meterRegistry.get("travel.scope").tag("operation", "async").timer().count());
+    }
+
+    private long legCount(String path, String outcome) {
+        val counter = meterRegistry.find("travel.leg.outcomes")
+                .tag("path", path)
+                .tag("outcome", outcome)
+                .counter();
+        return counter == null ? 0 : (long) counter.count();
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.model.CursorPage;
+import com.github.thorlauridsen.model.TravelDetails;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import java.util.List;
+import java.util.UUID;
+import lombok.val;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import static com.github.thorlauridsen.controller.BaseEndpoint.TRAVEL_BASE_ENDPOINT;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test class for testing that the gateway fetches lists one page at a time
+ * from the paginated endpoints of the target service when a page size is configured.
+ */
+@ActiveProfiles("test")
+@AutoConfigureRestTestClient
+@SpringBootTest(properties = {
+        "gateway.settings.targetUrl=http://localhost:9563",
+        "gateway.settings.pageSize=2"
+})
+class TravelPaginationTest {
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private static final WireMockServer WIREMOCK = new WireMockServer(9563);
+
+    @BeforeAll
+    static void setupWireMock() {
+        WIREMOCK.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        WIREMOCK.stop();
+    }
+
+    @Test
+    void get_travel_details_follows_page_cursors() {
+        stubPages("/hotels", TravelTestData.hotels);
+        stubPages("/flights", TravelTestData.flights);
+        stubPages("/rentalcars", TravelTestData.rentalCars);
+
+        val details = restTestClient.get()
+                .uri(TRAVEL_BASE_ENDPOINT + "/sync")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TravelDetails.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(TravelTestData.travelDetails, details);
+
+        for (val path : List.of("/flights", "/hotels", "/rentalcars")) {
+            WIREMOCK.verify(1, getRequestedFor(urlEqualTo(path + "/page?limit=2")));
+            WIREMOCK.verify(0, getRequestedFor(urlEqualTo(path)));
+        }
+    }
+
+    /**
+     * Stub two pages of the given elements on the paginated endpoint of the given path.
+     * The first page holds the first two elements and the second page holds the rest.
+     */
+    private <T> void stubPages(String path, List<T> elements) {
+        val cursor = UUID.randomUUID();
+        val first = new CursorPage<>(elements.subList(0, 2), cursor);
+        val second = new CursorPage<>(elements.subList(2, elements.size()), null);
+
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo(path + "/page?limit=2"))
+                .willReturn(okJson(jsonMapper.writeValueAsString(first))));
+        WIREMOCK.stubFor(WireMock.get(urlEqualTo(path + "/page?limit=2&after=" + cursor))
+                .willReturn(okJson(jsonMapper.writeValueAsString(second))));
+    }
+}
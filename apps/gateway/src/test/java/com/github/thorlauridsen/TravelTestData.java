@@ -2,8 +2,11 @@ package com.github.thorlauridsen;
 
 import com.github.thorlauridsen.model.Flight;
 import com.github.thorlauridsen.model.Hotel;
+import com.github.thorlauridsen.model.LegStatus;
 import com.github.thorlauridsen.model.RentalCar;
+import com.github.thorlauridsen.model.TravelAge;
 import com.github.thorlauridsen.model.TravelDetails;
+import com.github.thorlauridsen.model.TravelStatus;
 import java.util.List;
 import lombok.experimental.UtilityClass;
 
@@ -31,6 +34,8 @@ public class TravelTestData {
     public static final TravelDetails travelDetails = new TravelDetails(
             flights,
             hotels,
-            rentalCars
+            rentalCars,
+            new TravelStatus(LegStatus.SUCCESS, LegStatus.SUCCESS, LegStatus.SUCCESS),
+            TravelAge.FRESH
     );
 }
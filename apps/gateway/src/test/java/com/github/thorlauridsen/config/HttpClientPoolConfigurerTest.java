@@ -0,0 +1,82 @@
+package com.github.thorlauridsen.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.env.MockEnvironment;
+
+import static com.github.thorlauridsen.config.HttpClientPoolConfigurer.KEEP_ALIVE_TIMEOUT;
+import static com.github.thorlauridsen.config.HttpClientPoolConfigurer.KEEP_ALIVE_TIMEOUT_H2;
+import static com.github.thorlauridsen.config.HttpClientPoolConfigurer.POOL_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing that the pool settings of the client
+ * are copied into the system properties read by the JDK HttpClient.
+ */
+class HttpClientPoolConfigurerTest {
+
+    private static final List<String> PROPERTIES = List.of(POOL_SIZE, KEEP_ALIVE_TIMEOUT, KEEP_ALIVE_TIMEOUT_H2);
+
+    private final Map<String, String> previous = new HashMap<>();
+
+    @BeforeEach
+    void saveProperties() {
+        PROPERTIES.forEach(property -> previous.put(property, System.getProperty(property)));
+    }
+
+    @AfterEach
+    void restoreProperties() {
+        previous.forEach((property, value) -> {
+            if (value == null) {
+                System.clearProperty(property);
+            } else {
+                System.setProperty(property, value);
+            }
+        });
+    }
+
+    @Test
+    void pool_settings_are_copied_into_system_properties() {
+        val environment = new MockEnvironment()
+                .withProperty("gateway.settings.client.poolSize", "25")
+                .withProperty("gateway.settings.client.idleTimeout", "1m");
+
+        HttpClientPoolConfigurer.configure(environment);
+
+        assertEquals("25", System.getProperty(POOL_SIZE));
+        assertEquals("60", System.getProperty(KEEP_ALIVE_TIMEOUT));
+        assertEquals("60", System.getProperty(KEEP_ALIVE_TIMEOUT_H2));
+    }
+
+    @Test
+    void pool_settings_are_applied_before_the_context_is_created() {
+        val application = new SpringApplicationBuilder(EmptyConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "gateway.settings.client.poolSize=7",
+                        "gateway.settings.client.idleTimeout=12s"
+                );
+
+        try (val context = application.run()) {
+            assertTrue(context.isActive());
+            assertEquals("7", System.getProperty(POOL_SIZE));
+            assertEquals("12", System.getProperty(KEEP_ALIVE_TIMEOUT));
+        }
+    }
+
+    /**
+     * Empty configuration, only the listeners from spring.factories are involved.
+     */
+    @Configuration
+    static class EmptyConfiguration {
+    }
+}
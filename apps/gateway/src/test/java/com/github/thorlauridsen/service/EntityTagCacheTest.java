@@ -0,0 +1,58 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.GatewayConfig;
+import java.util.List;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the store of lists received with an ETag.
+ */
+class EntityTagCacheTest {
+
+    private final EntityTagCache cache = new EntityTagCache(new GatewayConfig(
+            null, null, null, 0, 0, null, null,
+            new GatewayConfig.Conditional(true, 3),
+            null, null
+    ));
+
+    @Test
+    void stored_list_is_returned_as_the_same_instance() {
+        val items = List.of("a", "b");
+        cache.store("/flights", "\"1\"", items);
+
+        assertSame(items, cache.get("/flights").orElseThrow().items());
+    }
+
+    @Test
+    void least_recently_used_lists_are_evicted_by_elements() {
+        cache.store("/flights", "\"1\"", List.of("a", "b"));
+        cache.store("/hotels", "\"1\"", List.of("c"));
+        cache.get("/flights");
+        cache.store("/rentalcars", "\"1\"", List.of("d"));
+
+        assertTrue(cache.get("/flights").isPresent());
+        assertFalse(cache.get("/hotels").isPresent());
+        assertTrue(cache.get("/rentalcars").isPresent());
+    }
+
+    @Test
+    void list_larger_than_the_bound_is_not_stored() {
+        cache.store("/flights", "\"1\"", List.of("a"));
+        cache.store("/flights", "\"2\"", List.of("a", "b", "c", "d"));
+
+        assertFalse(cache.get("/flights").isPresent());
+    }
+
+    @Test
+    void list_without_etag_removes_the_previous_list() {
+        cache.store("/flights", "\"1\"", List.of("a"));
+        cache.store("/flights", null, List.of("a"));
+
+        assertFalse(cache.get("/flights").isPresent());
+    }
+}
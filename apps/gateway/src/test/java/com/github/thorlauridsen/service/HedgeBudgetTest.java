@@ -0,0 +1,55 @@
+package com.github.thorlauridsen.service;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the token bucket which limits the number of hedged requests.
+ */
+class HedgeBudgetTest {
+
+    @Test
+    void withdraw_requires_a_whole_token() {
+        val budget = new HedgeBudget(0.5, 10);
+        assertFalse(budget.tryWithdraw());
+
+        budget.deposit();
+        assertFalse(budget.tryWithdraw());
+
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void refund_returns_the_token_of_a_hedge_which_was_not_sent() {
+        val budget = new HedgeBudget(1.0, 1);
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        budget.refund();
+        assertTrue(budget.tryWithdraw());
+    }
+
+    @Test
+    void tokens_are_capped_at_max_burst() {
+        val budget = new HedgeBudget(1.0, 2);
+        for (var i = 0; i < 5; i++) {
+            budget.deposit();
+        }
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        budget.refund();
+        budget.refund();
+        budget.refund();
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.GatewayConfig;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.client.RestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the JDK HttpClient behind the RestClient of the gateway.
+ * Only the {@link RestClientProvider} is started, so the executor
+ * of the client can be checked after the context has been closed.
+ */
+class RestClientProviderTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ClientConfiguration.class)
+            .withPropertyValues(
+                    "gateway.settings.targetUrl=http://localhost:9566",
+                    "gateway.settings.client.httpVersion=HTTP_2",
+                    "gateway.settings.client.connectTimeout=3s",
+                    "gateway.settings.client.readTimeout=5s"
+            );
+
+    @Test
+    void http_client_is_configured_from_client_settings() {
+        contextRunner.run(context -> {
+            val httpClient = context.getBean(HttpClient.class);
+
+            assertEquals(HttpClient.Version.HTTP_2, httpClient.version());
+            assertEquals(Optional.of(Duration.ofSeconds(3)), httpClient.connectTimeout());
+            assertTrue(httpClient.executor().isPresent());
+            assertNotNull(context.getBean(RestClient.class));
+        });
+    }
+
+    @Test
+    void executor_is_closed_with_the_context() {
+        val executor = new AtomicReference<ExecutorService>();
+        contextRunner.run(context -> {
+            executor.set(context.getBean("httpClientExecutor", ExecutorService.class));
+            assertFalse(executor.get().isShutdown());
+        });
+        assertTrue(executor.get().isShutdown());
+    }
+
+    /**
+     * Configuration with the client settings and a plain {@link RestClient.Builder}.
+     */
+    @EnableConfigurationProperties(GatewayConfig.class)
+    @Import(RestClientProvider.class)
+    static class ClientConfiguration {
+
+        @Bean
+        RestClient.Builder restClientBuilder() {
+            return RestClient.builder();
+        }
+    }
+}
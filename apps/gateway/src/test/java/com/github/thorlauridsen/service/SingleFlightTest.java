@@ -0,0 +1,151 @@
+package com.github.thorlauridsen.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Joiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing how identical concurrent requests are collapsed into a single request.
+ * Each caller runs on its own virtual thread, and a caller has attached
+ * to the request in flight once its thread is waiting for the response.
+ */
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+
+    @Test
+    void concurrent_callers_attach_to_the_request_in_flight() throws Exception {
+        val first = call("/attach");
+        val second = call("/attach");
+
+        release.countDown();
+
+        assertEquals("response", first.result().get(1, TimeUnit.SECONDS));
+        assertEquals("response", second.result().get(1, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void failure_is_shared_with_every_attached_caller() throws Exception {
+        val failing = new CountDownLatch(1);
+        InterruptibleSupplier<String> request = () -> {
+            requests.incrementAndGet();
+            failing.await();
+            throw new IllegalStateException("Upstream failed");
+        };
+        val first = call("/failure", request);
+        val second = call("/failure", request);
+
+        failing.countDown();
+
+        for (val caller : new Caller[]{first, second}) {
+            val e = assertThrows(ExecutionException.class, () -> caller.result().get(1, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void cancelled_caller_detaches_without_cancelling_the_request() throws Exception {
+        val first = call("/detach");
+        val second = call("/detach");
+
+        first.thread().interrupt();
+        val e = assertThrows(ExecutionException.class, () -> first.result().get(1, TimeUnit.SECONDS));
+        assertInstanceOf(InterruptedException.class, e.getCause());
+
+        release.countDown();
+
+        assertEquals("response", second.result().get(1, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+        assertEquals(1, cancelled.getCount());
+    }
+
+    @Test
+    void request_is_abandoned_when_the_last_caller_is_cancelled() throws Exception {
+        val caller = call("/abandon");
+
+        caller.thread().interrupt();
+
+        assertThrows(ExecutionException.class, () -> caller.result().get(1, TimeUnit.SECONDS));
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertEquals("response", singleFlight.execute("/abandon", this::request));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void request_is_abandoned_when_the_scope_of_the_caller_times_out() throws InterruptedException {
+        try (val scope = StructuredTaskScope.open(
+                Joiner.<String>awaitAll(),
+                config -> config.withTimeout(Duration.ofMillis(100))
+        )) {
+            scope.fork(() -> singleFlight.execute("/timeout", this::request));
+            assertThrows(StructuredTaskScope.TimeoutException.class, scope::join);
+        }
+
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+
+    /**
+     * Request which blocks until released and records whether it was cancelled.
+     */
+    private String request() throws InterruptedException {
+        requests.incrementAndGet();
+        try {
+            release.await();
+            return "response";
+        } catch (InterruptedException e) {
+            cancelled.countDown();
+            throw e;
+        }
+    }
+
+    private Caller call(String key) throws InterruptedException {
+        return call(key, this::request);
+    }
+
+    /**
+     * Execute a request on a new virtual thread and wait until the caller is waiting for the response.
+     */
+    private Caller call(String key, InterruptibleSupplier<String> request) throws InterruptedException {
+        val result = new CompletableFuture<String>();
+        val thread = Thread.ofVirtual().start(() -> {
+            try {
+                result.complete(singleFlight.execute(key, request));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        return new Caller(thread, result);
+    }
+
+    /**
+     * Caller of a request.
+     *
+     * @param thread The thread of the caller.
+     * @param result The response received by the caller.
+     */
+    private record Caller(Thread thread, CompletableFuture<String> result) {
+    }
+}
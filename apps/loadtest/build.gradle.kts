@@ -0,0 +1,23 @@
+import org.springframework.boot.gradle.tasks.run.BootRun
+
+plugins {
+	alias(local.plugins.lombok)
+	alias(local.plugins.springboot)
+	alias(local.plugins.spring.dependencies)
+}
+
+dependencies {
+	// Spring Boot dependencies
+	implementation(local.springboot.starter)
+	implementation(local.springboot.starter.validation)
+
+	// HdrHistogram for recording latency distributions
+	implementation(local.hdrhistogram)
+}
+
+// Run the load test with: ./gradlew :loadtest:bootRun
+// Settings can be overridden with: --args='--loadtest.settings.mode=RATE --loadtest.settings.rate=200'
+// The output directory is resolved relative to the root project.
+tasks.named<BootRun>("bootRun") {
+	workingDir = rootDir
+}
@@ -0,0 +1,23 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.config.LoadTestConfig;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+/**
+ * Main entry point for the load test application.
+ * We need to enable configuration properties for {@link LoadTestConfig}.
+ * This ensures that Spring Boot will bind the configuration
+ * properties from application.yml to the {@link LoadTestConfig} class.
+ */
+@SpringBootApplication
+@EnableConfigurationProperties(
+        LoadTestConfig.class
+)
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(LoadTestApplication.class, args);
+    }
+}
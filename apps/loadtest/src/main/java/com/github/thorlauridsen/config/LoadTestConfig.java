@@ -0,0 +1,87 @@
+package com.github.thorlauridsen.config;
+
+import jakarta.validation.constraints.Positive;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for the load test subproject.
+ * Holds the URL and paths of the service under test and
+ * the settings for how load is generated against it.
+ * The settings are validated on startup, so an invalid rate fails fast.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "loadtest.settings")
+public class LoadTestConfig {
+
+    /**
+     * URL of the service under test.
+     */
+    private final String targetUrl;
+
+    /**
+     * Paths which are load tested one after another.
+     */
+    private final List<String> paths;
+
+    /**
+     * How load is generated against each path.
+     */
+    private final Mode mode;
+
+    /**
+     * Number of concurrent requests in {@link Mode#CONCURRENCY} mode.
+     */
+    @Positive
+    private final int concurrency;
+
+    /**
+     * Number of requests per second in {@link Mode#RATE} mode.
+     */
+    @Positive
+    private final int rate;
+
+    /**
+     * Duration of the warmup for each path. Latencies during the warmup are discarded.
+     */
+    private final Duration warmup;
+
+    /**
+     * Duration of the measurement for each path.
+     */
+    private final Duration duration;
+
+    /**
+     * Timeout for a single request.
+     */
+    private final Duration requestTimeout;
+
+    /**
+     * Directory which the latency percentiles are exported to.
+     */
+    private final Path outputDirectory;
+
+    /**
+     * Mode of load generation.
+     */
+    public enum Mode {
+
+        /**
+         * Closed model where a fixed number of workers send a new request as soon as the previous one completes.
+         * The throughput adapts to the latency of the service, which is useful for finding its capacity.
+         */
+        CONCURRENCY,
+
+        /**
+         * Open model where requests are sent at a fixed rate regardless of how long the previous ones take.
+         * Latency is measured from when a request was scheduled to be sent, so queueing
+         * in the service under test is not hidden by coordinated omission.
+         */
+        RATE
+    }
+}
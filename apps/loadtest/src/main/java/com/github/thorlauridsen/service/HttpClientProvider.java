@@ -0,0 +1,34 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.LoadTestConfig;
+import java.net.http.HttpClient;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provider for {@link HttpClient} bean.
+ * Configures a JDK {@link HttpClient} which sends the requests of the load test.
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpClientProvider {
+
+    private final LoadTestConfig loadTestConfig;
+
+    /**
+     * Bean for providing a configured {@link HttpClient}.
+     * Responses are handled on virtual threads, so the client
+     * is never limited by the size of a thread pool.
+     *
+     * @return {@link HttpClient}
+     */
+    @Bean
+    public HttpClient httpClient() {
+        return HttpClient.newBuilder()
+                .connectTimeout(loadTestConfig.getRequestTimeout())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.LoadTestConfig;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for generating load against a path of the service under test.
+ * <p>
+ * Every request is sent from its own virtual thread, so the load generator itself
+ * does not limit the concurrency. The latency of each request is recorded in an
+ * HdrHistogram, which keeps the full distribution instead of an average.
+ */
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadTestConfig loadTestConfig;
+    private final HttpClient httpClient;
+
+    /**
+     * Generate load against the given path for the given duration.
+     * The load is generated according to the configured {@link LoadTestConfig.Mode}.
+     *
+     * @param path     The path to generate load against.
+     * @param duration How long to generate load.
+     * @return {@link LoadTestResult} with the recorded latencies.
+     */
+    public LoadTestResult run(String path, Duration duration) {
+        val uri = URI.create(loadTestConfig.getTargetUrl() + path);
+        val recording = new Recording(new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3), new LongAdder(), new LongAdder());
+        val start = System.nanoTime();
+        val end = start + duration.toNanos();
+
+        try (val executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            switch (loadTestConfig.getMode()) {
+                case CONCURRENCY -> {
+                    for (int i = 0; i < loadTestConfig.getConcurrency(); i++) {
+                        executor.submit(() -> {
+                            while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                                send(uri, System.nanoTime(), recording);
+                            }
+                        });
+                    }
+                }
+                case RATE -> {
+                    val interval = 1_000_000_000L / loadTestConfig.getRate();
+                    for (long intendedStart = start; intendedStart < end; intendedStart += interval) {
+                        LockSupport.parkNanos(intendedStart - System.nanoTime());
+                        val scheduled = intendedStart;
+                        executor.submit(() -> send(uri, scheduled, recording));
+                    }
+                }
+            }
+        }
+
+        return new LoadTestResult(
+                path,
+                recording.histogram(),
+                recording.successes().sum(),
+                recording.errors().sum(),
+                Duration.ofNanos(System.nanoTime() - start)
+        );
+    }
+
+    /**
+     * Send a single request and record its latency.
+     * The latency is measured from the intended start of the request,
+     * so a request which could not be sent on time is recorded as slow.
+     *
+     * @param uri           The URI to send the request to.
+     * @param intendedStart Time in nanoseconds when the request was intended to be sent.
+     * @param recording     {@link Recording} to record the outcome in.
+     */
+    private void send(URI uri, long intendedStart, Recording recording) {
+        val request = HttpRequest.newBuilder(uri)
+                .timeout(loadTestConfig.getRequestTimeout())
+                .GET()
+                .build();
+        try {
+            val response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() < 400) {
+                recording.successes().increment();
+            } else {
+                recording.errors().increment();
+            }
+        } catch (IOException e) {
+            log.debug("Request to {} failed", uri, e);
+            recording.errors().increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        val micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        recording.histogram().recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    /**
+     * Outcomes recorded while generating load against a path.
+     *
+     * @param histogram Latency distribution of the requests in microseconds.
+     * @param successes Number of requests which completed with a successful status.
+     * @param errors    Number of requests which failed or completed with an error status.
+     */
+    private record Recording(
+            Histogram histogram,
+            LongAdder successes,
+            LongAdder errors
+    ) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.thorlauridsen.service;
+
+import java.time.Duration;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Result of load testing a single path.
+ *
+ * @param path      The path which was load tested.
+ * @param histogram Latency distribution of the requests in microseconds.
+ * @param successes Number of requests which completed with a successful status.
+ * @param errors    Number of requests which failed or completed with an error status.
+ * @param elapsed   Duration of the load test.
+ */
+public record LoadTestResult(
+        String path,
+        Histogram histogram,
+        long successes,
+        long errors,
+        Duration elapsed
+) {
+
+    /**
+     * Get the throughput of the load test.
+     *
+     * @return Number of requests per second.
+     */
+    public double throughput() {
+        return (successes + errors) / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.LoadTestConfig;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the load test when the application starts.
+ * <p>
+ * Each configured path is warmed up and then measured one after another.
+ * For each path the full latency percentile distribution is exported
+ * to a file, and a summary of all paths is exported to summary.csv
+ * so results from different runs can be compared.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestRunner implements CommandLineRunner {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestConfig loadTestConfig;
+    private final LoadGenerator loadGenerator;
+
+    @Override
+    public void run(String... args) throws IOException {
+        val mode = loadTestConfig.getMode().name().toLowerCase(Locale.ROOT);
+        val outputDirectory = loadTestConfig.getOutputDirectory();
+        Files.createDirectories(outputDirectory);
+
+        val summary = new ArrayList<String>();
+        summary.add("path,mode,requests,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+
+        for (val path : loadTestConfig.getPaths()) {
+            log.info("Warming up {} for {}", path, loadTestConfig.getWarmup());
+            loadGenerator.run(path, loadTestConfig.getWarmup());
+
+            log.info("Measuring {} for {} in {} mode", path, loadTestConfig.getDuration(), mode);
+            val result = loadGenerator.run(path, loadTestConfig.getDuration());
+            val histogram = result.histogram();
+
+            log.info(
+                    "{}: {} requests, {} errors, {} req/s, p50 {} ms, p99 {} ms, max {} ms",
+                    path,
+                    result.successes() + result.errors(),
+                    result.errors(),
+                    String.format(Locale.ROOT, "%.1f", result.throughput()),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue())
+            );
+
+            val file = outputDirectory.resolve(path.replaceFirst("^/", "").replace('/', '-') + "-" + mode + ".txt");
+            try (val out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+            summary.add(String.join(
+                    ",",
+                    path,
+                    mode,
+                    String.valueOf(result.successes() + result.errors()),
+                    String.valueOf(result.errors()),
+                    String.format(Locale.ROOT, "%.1f", result.throughput()),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())
+            ));
+        }
+
+        Files.write(outputDirectory.resolve("summary.csv"), summary);
+        log.info("Exported latency percentiles to {}", outputDirectory.toAbsolutePath());
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / MICROS_PER_MILLI);
+    }
+}
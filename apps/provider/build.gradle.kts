@@ -9,13 +9,32 @@ dependencies {
 	implementation(projects.model)
 	implementation(projects.persistence)
 
+	// The tracing subproject continues the trace context of the gateway
+	implementation(projects.tracing)
+
 	// Spring Boot dependencies
 	implementation(local.springboot.starter)
 	implementation(local.springboot.starter.webmvc)
+	implementation(local.springboot.starter.validation)
 
     // Spring Boot Liquibase dependency for database migrations
     implementation(local.springboot.starter.liquibase)
 
+	// HikariCP for sizing the database limiter to the connection pool
+	implementation(local.hikaricp)
+
+	// Hibernate statistics for the hit ratio of each cache region
+	implementation(local.springboot.starter.jpa)
+
+	// Hibernate second-level and query cache backed by Caffeine through JCache
+	runtimeOnly(local.hibernate.jcache)
+	runtimeOnly(local.caffeine.jcache)
+
+	// Actuator and Micrometer for exposing metrics to Prometheus
+	implementation(local.springboot.starter.actuator)
+	runtimeOnly(local.micrometer.registry.prometheus)
+	runtimeOnly(local.hibernate.micrometer)
+
 	// Springdoc OpenAPI for providing Swagger documentation
 	implementation(local.springdoc.openapi.starter.webmvc)
 
@@ -38,4 +57,19 @@ dependencies {
 
 tasks.withType<Test> {
 	useJUnitPlatform()
+	// Enable preview features for Structured Concurrency
+	// Can be removed when moving to Java 25
+	jvmArgs("--enable-preview")
+}
+
+// Enable preview features for Structured Concurrency
+// Can be removed when moving to Java 25
+tasks.withType<JavaCompile>().configureEach {
+	options.compilerArgs.addAll(listOf("--enable-preview", "-Xlint:preview"))
+}
+
+// Enable preview features for Structured Concurrency
+// Can be removed when moving to Java 25
+tasks.withType<JavaExec>().configureEach {
+	jvmArgs("--enable-preview")
 }
@@ -1,12 +1,23 @@
 package com.github.thorlauridsen;
 
+import com.github.thorlauridsen.config.BulkConfig;
+import com.github.thorlauridsen.config.LatencyConfig;
+import com.github.thorlauridsen.config.LimiterConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 /**
  * Main entry point for the provider application.
+ * We need to enable configuration properties for {@link LatencyConfig}, {@link LimiterConfig}
+ * and {@link BulkConfig}.
+ * This ensures that Spring Boot will bind the configuration
+ * properties from application.yml to the configuration classes.
  */
 @SpringBootApplication
+@EnableConfigurationProperties(
+        {LatencyConfig.class, LimiterConfig.class, BulkConfig.class}
+)
 public class ProviderApplication {
 
     public static void main(String[] args) {
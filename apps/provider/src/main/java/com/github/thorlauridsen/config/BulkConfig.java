@@ -0,0 +1,20 @@
+package com.github.thorlauridsen.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for bulk inserts in the provider subproject.
+ * Bulk inserts are committed in chunks, so a large request neither holds a single
+ * long-running transaction nor keeps every inserted entity in memory.
+ */
+@Data
+@ConfigurationProperties(prefix = "provider.bulk")
+public class BulkConfig {
+
+    /**
+     * Number of rows committed per transaction.
+     * Within a chunk, rows are inserted in JDBC batches of the Hibernate batch size.
+     */
+    private final int chunkSize;
+}
@@ -0,0 +1,25 @@
+package com.github.thorlauridsen.config;
+
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for latency and fault injection in the provider subproject.
+ * These are the profiles the provider starts with. The profiles can be
+ * changed at runtime through the latency endpoint without a restart.
+ */
+@Data
+@ConfigurationProperties(prefix = "provider.latency")
+public class LatencyConfig {
+
+    /**
+     * Profile used for endpoints without a profile of their own.
+     */
+    private final LatencyProfile defaults;
+
+    /**
+     * Profiles of individual endpoints by name, for example flights.
+     */
+    private final Map<String, LatencyProfile> endpoints;
+}
@@ -0,0 +1,68 @@
+package com.github.thorlauridsen.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Latency and fault profile of an endpoint in the provider.
+ * <p>
+ * The delay of each request is drawn from the distribution, after which the jitter is added.
+ * The distributions use the following fields:
+ * - {@link Distribution#FIXED}: delay.
+ * - {@link Distribution#UNIFORM}: min and max.
+ * - {@link Distribution#LOG_NORMAL}: delay as the median and sigma as the spread.
+ * - {@link Distribution#RECORDED}: samples, for example latencies recorded in production.
+ *
+ * @param distribution Distribution of the delay.
+ * @param delay        Fixed delay, or the median delay of the log-normal distribution.
+ * @param min          Minimum delay of the uniform distribution.
+ * @param max          Maximum delay of the uniform distribution.
+ * @param sigma        Standard deviation of the logarithm of the log-normal distribution.
+ * @param samples      Samples of the recorded distribution, each equally likely.
+ * @param jitter       Maximum random jitter added to or subtracted from the delay.
+ * @param errorRate    Probability between 0 and 1 that a request fails after the delay.
+ * @param drip         Duration over which the response body is written, 0 writes it at once.
+ * @param dripChunks   Number of chunks the response body is written in when dripping.
+ */
+public record LatencyProfile(
+        @NotNull Distribution distribution,
+        Duration delay,
+        Duration min,
+        Duration max,
+        @PositiveOrZero double sigma,
+        List<Duration> samples,
+        Duration jitter,
+        @DecimalMin("0.0") @DecimalMax("1.0") double errorRate,
+        Duration drip,
+        @PositiveOrZero int dripChunks
+) {
+
+    private static final int DEFAULT_DRIP_CHUNKS = 10;
+
+    /**
+     * Constructor which treats missing durations as zero.
+     */
+    public LatencyProfile {
+        delay = delay == null ? Duration.ZERO : delay;
+        min = min == null ? Duration.ZERO : min;
+        max = max == null ? min : max;
+        samples = samples == null ? List.of() : List.copyOf(samples);
+        jitter = jitter == null ? Duration.ZERO : jitter;
+        drip = drip == null ? Duration.ZERO : drip;
+        dripChunks = dripChunks == 0 ? DEFAULT_DRIP_CHUNKS : dripChunks;
+    }
+
+    /**
+     * Distribution of the delay of a request.
+     */
+    public enum Distribution {
+        FIXED,
+        UNIFORM,
+        LOG_NORMAL,
+        RECORDED
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.thorlauridsen.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for limiting concurrent database work in the provider subproject.
+ * Requests are handled on virtual threads, so the number of concurrent requests is no longer
+ * bounded by a thread pool, and the database connection pool becomes the bottleneck instead.
+ */
+@Data
+@ConfigurationProperties(prefix = "provider.limiter")
+public class LimiterConfig {
+
+    /**
+     * Number of concurrent database calls, 0 uses the maximum size of the connection pool.
+     */
+    private final int permits;
+
+    /**
+     * Maximum duration a database call waits for a permit before it is rejected.
+     */
+    private final Duration acquireTimeout;
+}
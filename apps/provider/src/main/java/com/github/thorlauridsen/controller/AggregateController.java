@@ -0,0 +1,32 @@
+package com.github.thorlauridsen.controller;
+
+import com.github.thorlauridsen.model.TravelAggregate;
+import com.github.thorlauridsen.service.AggregateService;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Aggregate controller class.
+ * This class implements the {@link IAggregateController} interface and
+ * overrides the methods defined in the interface with implementations.
+ * The controller is responsible for handling aggregate requests and delegating to the service layer.
+ */
+@RestController
+@RequiredArgsConstructor
+public class AggregateController implements IAggregateController {
+
+    private final AggregateService aggregateService;
+
+    /**
+     * Retrieve all flights, hotels and rental cars.
+     *
+     * @return {@link ResponseEntity} with a {@link TravelAggregate}.
+     */
+    @Override
+    public ResponseEntity<TravelAggregate> getAll() throws InterruptedException {
+        val aggregate = aggregateService.findAll();
+        return ResponseEntity.ok(aggregate);
+    }
+}
@@ -10,4 +10,6 @@ public class BaseEndpoint {
     public static final String HOTEL_BASE_ENDPOINT = "/hotels";
     public static final String FLIGHT_BASE_ENDPOINT = "/flights";
     public static final String RENTAL_CAR_BASE_ENDPOINT = "/rentalcars";
+    public static final String LATENCY_BASE_ENDPOINT = "/latency";
+    public static final String AGGREGATE_BASE_ENDPOINT = "/aggregate";
 }
@@ -1,12 +1,18 @@
 package com.github.thorlauridsen.controller;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Flight;
 import com.github.thorlauridsen.service.FlightService;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Flight controller class.
@@ -22,15 +28,36 @@ public class FlightController implements IFlightController {
 
     /**
      * Retrieve all flights.
+     * The version of the flights is checked before they are fetched, so a client which already
+     * has the current version gets 304 Not Modified without querying the database.
+     * The ETag and Last-Modified headers are added to the response by the check.
      *
-     * @return {@link ResponseEntity} with a list of {@link Flight}.
+     * @param request The request with the conditional headers.
+     * @return {@link ResponseEntity} with a list of {@link Flight}, or null if not modified.
      */
     @Override
-    public ResponseEntity<List<Flight>> getAll() throws InterruptedException {
+    public ResponseEntity<List<Flight>> getAll(WebRequest request) throws InterruptedException {
+        val version = flightService.version();
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
         val list = flightService.findAll();
         return ResponseEntity.ok(list);
     }
 
+    /**
+     * Retrieve a page of flights using keyset pagination.
+     *
+     * @param after Cursor of the previous page, or null to retrieve the first page.
+     * @param limit Maximum number of flights on the page.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link Flight}.
+     */
+    @Override
+    public ResponseEntity<CursorPage<Flight>> getPage(UUID after, int limit) {
+        val page = flightService.findPage(after, Pagination.clamp(limit));
+        return ResponseEntity.ok(page);
+    }
+
     /**
      * Save a flight.
      *
@@ -42,4 +69,45 @@ public class FlightController implements IFlightController {
         val savedFlight = flightService.save(flight);
         return ResponseEntity.ok(savedFlight);
     }
+
+    /**
+     * Bulk insert flights.
+     *
+     * @param body Request body with the flights to insert.
+     * @return {@link ResponseEntity} with a {@link BulkInsertReport}.
+     */
+    @Override
+    public ResponseEntity<BulkInsertReport> postBulk(InputStream body) throws IOException {
+        val report = flightService.saveAll(body);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Search flights by the given criteria using keyset pagination.
+     *
+     * @param origin      Origin of the flights, or null to match any.
+     * @param destination Destination of the flights, or null to match any.
+     * @param airline     Airline of the flights, or null to match any.
+     * @param after       Cursor of the previous page, or null to get the first page.
+     * @param limit       Maximum number of flights on the page.
+     * @param request     The request with the conditional headers.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link Flight} matching the criteria.
+     *         The response is 304 Not Modified if the flights have not changed since the given version.
+     */
+    @Override
+    public ResponseEntity<CursorPage<Flight>> search(
+            String origin,
+            String destination,
+            String airline,
+            UUID after,
+            int limit,
+            WebRequest request
+    ) throws InterruptedException {
+        val version = flightService.version();
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
+        val page = flightService.search(origin, destination, airline, after, Pagination.clamp(limit));
+        return ResponseEntity.ok(page);
+    }
 }
@@ -1,12 +1,18 @@
 package com.github.thorlauridsen.controller;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Hotel;
 import com.github.thorlauridsen.service.HotelService;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Hotel controller class.
@@ -22,15 +28,36 @@ public class HotelController implements IHotelController {
 
     /**
      * Retrieve all hotels.
+     * The version of the hotels is checked before they are fetched, so a client which already
+     * has the current version gets 304 Not Modified without querying the database.
+     * The ETag and Last-Modified headers are added to the response by the check.
      *
-     * @return {@link ResponseEntity} with a list of {@link Hotel}.
+     * @param request The request with the conditional headers.
+     * @return {@link ResponseEntity} with a list of {@link Hotel}, or null if not modified.
      */
     @Override
-    public ResponseEntity<List<Hotel>> getAll() throws InterruptedException {
+    public ResponseEntity<List<Hotel>> getAll(WebRequest request) throws InterruptedException {
+        val version = hotelService.version();
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
         val list = hotelService.findAll();
         return ResponseEntity.ok(list);
     }
 
+    /**
+     * Retrieve a page of hotels using keyset pagination.
+     *
+     * @param after Cursor of the previous page, or null to retrieve the first page.
+     * @param limit Maximum number of hotels on the page.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link Hotel}.
+     */
+    @Override
+    public ResponseEntity<CursorPage<Hotel>> getPage(UUID after, int limit) {
+        val page = hotelService.findPage(after, Pagination.clamp(limit));
+        return ResponseEntity.ok(page);
+    }
+
     /**
      * Save a hotel.
      *
@@ -42,4 +69,43 @@ public class HotelController implements IHotelController {
         val savedHotel = hotelService.save(hotel);
         return ResponseEntity.ok(savedHotel);
     }
+
+    /**
+     * Bulk insert hotels.
+     *
+     * @param body Request body with the hotels to insert.
+     * @return {@link ResponseEntity} with a {@link BulkInsertReport}.
+     */
+    @Override
+    public ResponseEntity<BulkInsertReport> postBulk(InputStream body) throws IOException {
+        val report = hotelService.saveAll(body);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Search hotels by the given criteria using keyset pagination.
+     *
+     * @param location  Location of the hotels, or null to match any.
+     * @param minRating Minimum rating of the hotels, or null to match any.
+     * @param after     Cursor of the previous page, or null to get the first page.
+     * @param limit     Maximum number of hotels on the page.
+     * @param request   The request with the conditional headers.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link Hotel} matching the criteria.
+     *         The response is 304 Not Modified if the hotels have not changed since the given version.
+     */
+    @Override
+    public ResponseEntity<CursorPage<Hotel>> search(
+            String location,
+            Double minRating,
+            UUID after,
+            int limit,
+            WebRequest request
+    ) throws InterruptedException {
+        val version = hotelService.version();
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
+        val page = hotelService.search(location, minRating, after, Pagination.clamp(limit));
+        return ResponseEntity.ok(page);
+    }
 }
@@ -0,0 +1,38 @@
+package com.github.thorlauridsen.controller;
+
+import com.github.thorlauridsen.model.TravelAggregate;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import static com.github.thorlauridsen.controller.BaseEndpoint.AGGREGATE_BASE_ENDPOINT;
+
+/**
+ * Aggregate controller interface.
+ * This interface defines the endpoints for the aggregate controller.
+ * It also defines the operations which will be used in the OpenAPI documentation.
+ * The purpose of this interface is to separate the controller definition from the implementation.
+ */
+@Tag(name = "Aggregate Controller", description = "API for retrieving all travel options in a single request")
+@RequestMapping(AGGREGATE_BASE_ENDPOINT)
+public interface IAggregateController {
+
+    /**
+     * Retrieve all flights, hotels and rental cars.
+     *
+     * @return {@link ResponseEntity} with a {@link TravelAggregate}.
+     */
+    @GetMapping
+    @Operation(
+            summary = "Retrieve all travel options",
+            description = "Retrieve all flights, hotels and rental cars, fetched concurrently"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved travel options"
+    )
+    ResponseEntity<TravelAggregate> getAll() throws InterruptedException;
+}
@@ -1,18 +1,27 @@
 package com.github.thorlauridsen.controller;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Flight;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import static com.github.thorlauridsen.controller.BaseEndpoint.FLIGHT_BASE_ENDPOINT;
+import static com.github.thorlauridsen.controller.Pagination.DEFAULT_PAGE_SIZE;
 
 /**
  * Flight controller interface.
@@ -26,7 +35,10 @@ public interface IFlightController {
 
     /**
      * Retrieve all flights.
+     * The response has an ETag and Last-Modified header with the version of the flights,
+     * and is 304 Not Modified if the flights have not changed since the given version.
      *
+     * @param request The request with the conditional headers.
      * @return {@link ResponseEntity} with a list of {@link Flight}.
      */
     @GetMapping
@@ -38,7 +50,32 @@ public interface IFlightController {
             responseCode = "200",
             description = "Successfully retrieved flights"
     )
-    ResponseEntity<List<Flight>> getAll() throws InterruptedException;
+    @ApiResponse(
+            responseCode = "304",
+            description = "Flights not modified since the given version"
+    )
+    ResponseEntity<List<Flight>> getAll(WebRequest request) throws InterruptedException;
+
+    /**
+     * Retrieve a page of flights using keyset pagination.
+     *
+     * @param after Cursor of the previous page, or null to retrieve the first page.
+     * @param limit Maximum number of flights on the page.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link Flight}.
+     */
+    @GetMapping("/page")
+    @Operation(
+            summary = "Retrieve a page of flights",
+            description = "Retrieve a page of flights using keyset pagination"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved page of flights"
+    )
+    ResponseEntity<CursorPage<Flight>> getPage(
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit
+    );
 
     /**
      * Save a flight.
@@ -56,4 +93,58 @@ public interface IFlightController {
             description = "Flight successfully created"
     )
     ResponseEntity<Flight> post(@Valid @RequestBody Flight flight);
+
+    /**
+     * Bulk insert flights.
+     * The request body is either a JSON array or newline delimited JSON with one flight per line.
+     *
+     * @param body Request body with the flights to insert.
+     * @return {@link ResponseEntity} with a {@link BulkInsertReport}.
+     */
+    @PostMapping(
+            value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    @Operation(
+            summary = "Bulk insert flights",
+            description = "Bulk insert flights from a JSON array or newline delimited JSON, committed in chunks"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Flights successfully inserted"
+    )
+    ResponseEntity<BulkInsertReport> postBulk(InputStream body) throws IOException;
+
+    /**
+     * Search flights by the given criteria using keyset pagination.
+     *
+     * @param origin      Origin of the flights, or null to match any.
+     * @param destination Destination of the flights, or null to match any.
+     * @param airline     Airline of the flights, or null to match any.
+     * @param after       Cursor of the previous page, or null to get the first page.
+     * @param limit       Maximum number of flights on the page.
+     * @param request     The request with the conditional headers.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link Flight} matching the criteria.
+     */
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search flights",
+            description = "Search flights by origin, destination and airline"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully searched flights"
+    )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Flights not modified since the given version"
+    )
+    ResponseEntity<CursorPage<Flight>> search(
+            @RequestParam(name = "origin", required = false) String origin,
+            @RequestParam(name = "destination", required = false) String destination,
+            @RequestParam(name = "airline", required = false) String airline,
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request
+    ) throws InterruptedException;
 }
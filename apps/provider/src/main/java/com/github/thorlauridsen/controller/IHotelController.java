@@ -1,18 +1,27 @@
 package com.github.thorlauridsen.controller;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Hotel;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import static com.github.thorlauridsen.controller.BaseEndpoint.HOTEL_BASE_ENDPOINT;
+import static com.github.thorlauridsen.controller.Pagination.DEFAULT_PAGE_SIZE;
 
 /**
  * Hotel controller interface.
@@ -26,7 +35,10 @@ public interface IHotelController {
 
     /**
      * Retrieve all hotels.
+     * The response has an ETag and Last-Modified header with the version of the hotels,
+     * and is 304 Not Modified if the hotels have not changed since the given version.
      *
+     * @param request The request with the conditional headers.
      * @return {@link ResponseEntity} with a list of {@link Hotel}.
      */
     @GetMapping
@@ -38,7 +50,32 @@ public interface IHotelController {
             responseCode = "200",
             description = "Successfully retrieved hotels"
     )
-    ResponseEntity<List<Hotel>> getAll() throws InterruptedException;
+    @ApiResponse(
+            responseCode = "304",
+            description = "Hotels not modified since the given version"
+    )
+    ResponseEntity<List<Hotel>> getAll(WebRequest request) throws InterruptedException;
+
+    /**
+     * Retrieve a page of hotels using keyset pagination.
+     *
+     * @param after Cursor of the previous page, or null to retrieve the first page.
+     * @param limit Maximum number of hotels on the page.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link Hotel}.
+     */
+    @GetMapping("/page")
+    @Operation(
+            summary = "Retrieve a page of hotels",
+            description = "Retrieve a page of hotels using keyset pagination"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved page of hotels"
+    )
+    ResponseEntity<CursorPage<Hotel>> getPage(
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit
+    );
 
     /**
      * Save a hotel.
@@ -56,4 +93,56 @@ public interface IHotelController {
             description = "Hotel successfully created"
     )
     ResponseEntity<Hotel> post(@Valid @RequestBody Hotel hotel);
+
+    /**
+     * Bulk insert hotels.
+     * The request body is either a JSON array or newline delimited JSON with one hotel per line.
+     *
+     * @param body Request body with the hotels to insert.
+     * @return {@link ResponseEntity} with a {@link BulkInsertReport}.
+     */
+    @PostMapping(
+            value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    @Operation(
+            summary = "Bulk insert hotels",
+            description = "Bulk insert hotels from a JSON array or newline delimited JSON, committed in chunks"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Hotels successfully inserted"
+    )
+    ResponseEntity<BulkInsertReport> postBulk(InputStream body) throws IOException;
+
+    /**
+     * Search hotels by the given criteria using keyset pagination.
+     *
+     * @param location  Location of the hotels, or null to match any.
+     * @param minRating Minimum rating of the hotels, or null to match any.
+     * @param after     Cursor of the previous page, or null to get the first page.
+     * @param limit     Maximum number of hotels on the page.
+     * @param request   The request with the conditional headers.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link Hotel} matching the criteria.
+     */
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search hotels",
+            description = "Search hotels by location and minimum rating"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully searched hotels"
+    )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Hotels not modified since the given version"
+    )
+    ResponseEntity<CursorPage<Hotel>> search(
+            @RequestParam(name = "location", required = false) String location,
+            @RequestParam(name = "minRating", required = false) Double minRating,
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request
+    ) throws InterruptedException;
 }
@@ -0,0 +1,99 @@
+package com.github.thorlauridsen.controller;
+
+import com.github.thorlauridsen.config.LatencyProfile;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import static com.github.thorlauridsen.controller.BaseEndpoint.LATENCY_BASE_ENDPOINT;
+
+/**
+ * Latency controller interface.
+ * This interface defines the endpoints for changing the latency and fault profiles at runtime.
+ * It also defines the operations which will be used in the OpenAPI documentation.
+ * The purpose of this interface is to separate the controller definition from the implementation.
+ */
+@Tag(name = "Latency Controller", description = "API for injecting latency and faults")
+@RequestMapping(LATENCY_BASE_ENDPOINT)
+public interface ILatencyController {
+
+    /**
+     * Retrieve the profiles of all endpoints which have a profile of their own.
+     *
+     * @return {@link ResponseEntity} with a map of {@link LatencyProfile} by endpoint.
+     */
+    @GetMapping
+    @Operation(
+            summary = "Retrieve all latency profiles",
+            description = "Retrieve the latency profiles of all endpoints which have a profile of their own"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved latency profiles"
+    )
+    ResponseEntity<Map<String, LatencyProfile>> getAll();
+
+    /**
+     * Retrieve the profile of an endpoint.
+     *
+     * @param endpoint Name of the endpoint, for example flights.
+     * @return {@link ResponseEntity} with the {@link LatencyProfile} of the endpoint.
+     */
+    @GetMapping("/{endpoint}")
+    @Operation(
+            summary = "Retrieve a latency profile",
+            description = "Retrieve the latency profile of an endpoint"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved latency profile"
+    )
+    ResponseEntity<LatencyProfile> get(@PathVariable("endpoint") String endpoint);
+
+    /**
+     * Replace the profile of an endpoint.
+     *
+     * @param endpoint Name of the endpoint, for example flights.
+     * @param profile  The new {@link LatencyProfile}.
+     * @return {@link ResponseEntity} with the new {@link LatencyProfile}.
+     */
+    @PutMapping("/{endpoint}")
+    @Operation(
+            summary = "Replace a latency profile",
+            description = "Replace the latency profile of an endpoint"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Latency profile successfully replaced"
+    )
+    ResponseEntity<LatencyProfile> put(
+            @PathVariable("endpoint") String endpoint,
+            @Valid @RequestBody LatencyProfile profile
+    );
+
+    /**
+     * Reset the profile of an endpoint to the configured profile.
+     *
+     * @param endpoint Name of the endpoint, for example flights.
+     * @return {@link ResponseEntity} without content.
+     */
+    @DeleteMapping("/{endpoint}")
+    @Operation(
+            summary = "Reset a latency profile",
+            description = "Reset the latency profile of an endpoint to the configured profile"
+    )
+    @ApiResponse(
+            responseCode = "204",
+            description = "Latency profile successfully reset"
+    )
+    ResponseEntity<Void> delete(@PathVariable("endpoint") String endpoint);
+}
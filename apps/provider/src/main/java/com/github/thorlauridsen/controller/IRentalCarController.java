@@ -1,18 +1,27 @@
 package com.github.thorlauridsen.controller;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.RentalCar;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import static com.github.thorlauridsen.controller.BaseEndpoint.RENTAL_CAR_BASE_ENDPOINT;
+import static com.github.thorlauridsen.controller.Pagination.DEFAULT_PAGE_SIZE;
 
 /**
  * Rental car controller interface.
@@ -26,7 +35,10 @@ public interface IRentalCarController {
 
     /**
      * Retrieve all rental cars.
+     * The response has an ETag and Last-Modified header with the version of the rental cars,
+     * and is 304 Not Modified if the rental cars have not changed since the given version.
      *
+     * @param request The request with the conditional headers.
      * @return {@link ResponseEntity} with a list of {@link RentalCar}.
      */
     @GetMapping
@@ -38,7 +50,32 @@ public interface IRentalCarController {
             responseCode = "200",
             description = "Successfully retrieved rental cars"
     )
-    ResponseEntity<List<RentalCar>> getAll() throws InterruptedException;
+    @ApiResponse(
+            responseCode = "304",
+            description = "Rental cars not modified since the given version"
+    )
+    ResponseEntity<List<RentalCar>> getAll(WebRequest request) throws InterruptedException;
+
+    /**
+     * Retrieve a page of rental cars using keyset pagination.
+     *
+     * @param after Cursor of the previous page, or null to retrieve the first page.
+     * @param limit Maximum number of rental cars on the page.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link RentalCar}.
+     */
+    @GetMapping("/page")
+    @Operation(
+            summary = "Retrieve a page of rental cars",
+            description = "Retrieve a page of rental cars using keyset pagination"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully retrieved page of rental cars"
+    )
+    ResponseEntity<CursorPage<RentalCar>> getPage(
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit
+    );
 
     /**
      * Save a rental car.
@@ -56,4 +93,56 @@ public interface IRentalCarController {
             description = "Rental car successfully created"
     )
     ResponseEntity<RentalCar> post(@Valid @RequestBody RentalCar rentalCar);
+
+    /**
+     * Bulk insert rental cars.
+     * The request body is either a JSON array or newline delimited JSON with one rental car per line.
+     *
+     * @param body Request body with the rental cars to insert.
+     * @return {@link ResponseEntity} with a {@link BulkInsertReport}.
+     */
+    @PostMapping(
+            value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    @Operation(
+            summary = "Bulk insert rental cars",
+            description = "Bulk insert rental cars from a JSON array or newline delimited JSON, committed in chunks"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Rental cars successfully inserted"
+    )
+    ResponseEntity<BulkInsertReport> postBulk(InputStream body) throws IOException;
+
+    /**
+     * Search rental cars by the given criteria using keyset pagination.
+     *
+     * @param location Location of the rental cars, or null to match any.
+     * @param company  Company of the rental cars, or null to match any.
+     * @param after    Cursor of the previous page, or null to get the first page.
+     * @param limit    Maximum number of rental cars on the page.
+     * @param request  The request with the conditional headers.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link RentalCar} matching the criteria.
+     */
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search rental cars",
+            description = "Search rental cars by location and company"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Successfully searched rental cars"
+    )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Rental cars not modified since the given version"
+    )
+    ResponseEntity<CursorPage<RentalCar>> search(
+            @RequestParam(name = "location", required = false) String location,
+            @RequestParam(name = "company", required = false) String company,
+            @RequestParam(name = "after", required = false) UUID after,
+            @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request
+    ) throws InterruptedException;
 }
@@ -0,0 +1,67 @@
+package com.github.thorlauridsen.controller;
+
+import com.github.thorlauridsen.config.LatencyProfile;
+import com.github.thorlauridsen.service.LatencyInjector;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Latency controller class.
+ * This class implements the {@link ILatencyController} interface and
+ * overrides the methods defined in the interface with implementations.
+ * The controller is responsible for handling latency profile requests and delegating to the service layer.
+ */
+@RestController
+@RequiredArgsConstructor
+public class LatencyController implements ILatencyController {
+
+    private final LatencyInjector latencyInjector;
+
+    /**
+     * Retrieve the profiles of all endpoints which have a profile of their own.
+     *
+     * @return {@link ResponseEntity} with a map of {@link LatencyProfile} by endpoint.
+     */
+    @Override
+    public ResponseEntity<Map<String, LatencyProfile>> getAll() {
+        return ResponseEntity.ok(latencyInjector.profiles());
+    }
+
+    /**
+     * Retrieve the profile of an endpoint.
+     *
+     * @param endpoint Name of the endpoint, for example flights.
+     * @return {@link ResponseEntity} with the {@link LatencyProfile} of the endpoint.
+     */
+    @Override
+    public ResponseEntity<LatencyProfile> get(String endpoint) {
+        return ResponseEntity.ok(latencyInjector.profile(endpoint));
+    }
+
+    /**
+     * Replace the profile of an endpoint.
+     *
+     * @param endpoint Name of the endpoint, for example flights.
+     * @param profile  The new {@link LatencyProfile}.
+     * @return {@link ResponseEntity} with the new {@link LatencyProfile}.
+     */
+    @Override
+    public ResponseEntity<LatencyProfile> put(String endpoint, LatencyProfile profile) {
+        latencyInjector.update(endpoint, profile);
+        return ResponseEntity.ok(profile);
+    }
+
+    /**
+     * Reset the profile of an endpoint to the configured profile.
+     *
+     * @param endpoint Name of the endpoint, for example flights.
+     * @return {@link ResponseEntity} without content.
+     */
+    @Override
+    public ResponseEntity<Void> delete(String endpoint) {
+        latencyInjector.reset(endpoint);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.thorlauridsen.controller;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * This class contains the constants for keyset pagination in the various controllers.
+ * The page size is bounded so that a response stays bounded regardless of the size of a table.
+ */
+@UtilityClass
+public class Pagination {
+    public static final String DEFAULT_PAGE_SIZE = "100";
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Clamp a requested page size between 1 and {@link #MAX_PAGE_SIZE}.
+     *
+     * @param limit The requested page size.
+     * @return The clamped page size.
+     */
+    public static int clamp(int limit) {
+        return Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    }
+}
@@ -1,12 +1,18 @@
 package com.github.thorlauridsen.controller;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.RentalCar;
 import com.github.thorlauridsen.service.RentalCarService;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Rental car controller class.
@@ -22,15 +28,36 @@ public class RentalCarController implements IRentalCarController {
 
     /**
      * Retrieve all rental cars.
+     * The version of the rental cars is checked before they are fetched, so a client which already
+     * has the current version gets 304 Not Modified without querying the database.
+     * The ETag and Last-Modified headers are added to the response by the check.
      *
-     * @return {@link ResponseEntity} with a list of {@link RentalCar}.
+     * @param request The request with the conditional headers.
+     * @return {@link ResponseEntity} with a list of {@link RentalCar}, or null if not modified.
      */
     @Override
-    public ResponseEntity<List<RentalCar>> getAll() throws InterruptedException {
+    public ResponseEntity<List<RentalCar>> getAll(WebRequest request) throws InterruptedException {
+        val version = rentalCarService.version();
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
         val list = rentalCarService.findAll();
         return ResponseEntity.ok(list);
     }
 
+    /**
+     * Retrieve a page of rental cars using keyset pagination.
+     *
+     * @param after Cursor of the previous page, or null to retrieve the first page.
+     * @param limit Maximum number of rental cars on the page.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link RentalCar}.
+     */
+    @Override
+    public ResponseEntity<CursorPage<RentalCar>> getPage(UUID after, int limit) {
+        val page = rentalCarService.findPage(after, Pagination.clamp(limit));
+        return ResponseEntity.ok(page);
+    }
+
     /**
      * Save a rental car.
      *
@@ -42,4 +69,43 @@ public class RentalCarController implements IRentalCarController {
         val savedRentalCar = rentalCarService.save(rentalCar);
         return ResponseEntity.ok(savedRentalCar);
     }
+
+    /**
+     * Bulk insert rental cars.
+     *
+     * @param body Request body with the rental cars to insert.
+     * @return {@link ResponseEntity} with a {@link BulkInsertReport}.
+     */
+    @Override
+    public ResponseEntity<BulkInsertReport> postBulk(InputStream body) throws IOException {
+        val report = rentalCarService.saveAll(body);
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Search rental cars by the given criteria using keyset pagination.
+     *
+     * @param location Location of the rental cars, or null to match any.
+     * @param company  Company of the rental cars, or null to match any.
+     * @param after    Cursor of the previous page, or null to get the first page.
+     * @param limit    Maximum number of rental cars on the page.
+     * @param request  The request with the conditional headers.
+     * @return {@link ResponseEntity} with a {@link CursorPage} of {@link RentalCar} matching the criteria.
+     *         The response is 304 Not Modified if the rental cars have not changed since the given version.
+     */
+    @Override
+    public ResponseEntity<CursorPage<RentalCar>> search(
+            String location,
+            String company,
+            UUID after,
+            int limit,
+            WebRequest request
+    ) throws InterruptedException {
+        val version = rentalCarService.version();
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
+        val page = rentalCarService.search(location, company, after, Pagination.clamp(limit));
+        return ResponseEntity.ok(page);
+    }
 }
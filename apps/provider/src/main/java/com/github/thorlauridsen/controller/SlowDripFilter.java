@@ -0,0 +1,96 @@
+package com.github.thorlauridsen.controller;
+
+import com.github.thorlauridsen.service.LatencyInjector;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Servlet filter which writes response bodies slowly according to the latency profile of the endpoint.
+ * <p>
+ * If the profile has a drip duration, the response body is buffered and then written in
+ * chunks with a pause between each chunk, so the body takes the drip duration to arrive.
+ * This simulates a slow network or an overloaded service which has sent the response
+ * headers quickly but is slow to send the body. The endpoint is the first segment
+ * of the request path, for example flights for /flights/page.
+ * <p>
+ * The Content-Length of the buffered body is set before the first chunk is written.
+ * If the request is processed asynchronously, the body is written at the end of the
+ * async dispatch instead, as the body is not complete when the initial dispatch returns.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlowDripFilter extends OncePerRequestFilter {
+
+    private final LatencyInjector latencyInjector;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || latencyInjector.profile(endpoint(request)).drip().isZero();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+        val profile = latencyInjector.profile(endpoint(request));
+        val wrapper = wrap(response);
+        chain.doFilter(request, wrapper);
+        if (isAsyncStarted(request)) {
+            return;
+        }
+
+        val body = wrapper.getContentAsByteArray();
+        val chunkSize = Math.max(1, (body.length + profile.dripChunks() - 1) / profile.dripChunks());
+        val chunks = (body.length + chunkSize - 1) / chunkSize;
+        val pause = chunks > 1 ? profile.drip().dividedBy(chunks - 1) : Duration.ZERO;
+        val target = (HttpServletResponse) wrapper.getResponse();
+        target.setContentLength(body.length);
+        val out = target.getOutputStream();
+        try {
+            for (int offset = 0; offset < body.length; offset += chunkSize) {
+                if (offset > 0) {
+                    Thread.sleep(pause);
+                }
+                out.write(body, offset, Math.min(chunkSize, body.length - offset));
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wrap the response in a buffer, or reuse the buffer of the initial dispatch
+     * if this is the async dispatch of the same request.
+     *
+     * @param response The response of the current dispatch.
+     * @return {@link ContentCachingResponseWrapper} which buffers the response body.
+     */
+    private static ContentCachingResponseWrapper wrap(HttpServletResponse response) {
+        val wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        return wrapper != null ? wrapper : new ContentCachingResponseWrapper(response);
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        val path = request.getRequestURI().substring(request.getContextPath().length());
+        val segments = path.split("/");
+        return segments.length > 1 ? segments[1] : "";
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.model.TravelAggregate;
+import com.github.thorlauridsen.tracing.Tracing;
+import java.util.List;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Joiner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Service;
+
+/**
+ * This service is responsible for:
+ * - Fetching all flights, hotels and rental cars in a single call.
+ * <p>
+ * The three lists are fetched concurrently in a {@link StructuredTaskScope},
+ * so the gateway can retrieve every leg of the travel details with a single request
+ * instead of fanning out three requests itself. Each list is fetched through its own
+ * service, so the latency profile, database limiter and spans of each endpoint still apply,
+ * and the subtasks inherit the trace context of the request.
+ * <p>
+ * If any of the lists cannot be fetched, the scope is cancelled and the exception is rethrown.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class AggregateService {
+
+    private final FlightService flightService;
+    private final HotelService hotelService;
+    private final RentalCarService rentalCarService;
+
+    /**
+     * Get all flights, hotels and rental cars.
+     *
+     * @return {@link TravelAggregate} with all three lists.
+     * @throws InterruptedException If interrupted while waiting for the lists.
+     */
+    public TravelAggregate findAll() throws InterruptedException {
+        return Tracing.span("AggregateService.findAll", () -> {
+            log.info("Retrieving all travel options concurrently...");
+
+            try (val scope = StructuredTaskScope.open(Joiner.<List<?>>allSuccessfulOrThrow())) {
+                val flights = scope.fork(flightService::findAll);
+                val hotels = scope.fork(hotelService::findAll);
+                val rentalCars = scope.fork(rentalCarService::findAll);
+                scope.join();
+
+                return new TravelAggregate(flights.get(), hotels.get(), rentalCars.get());
+            } catch (StructuredTaskScope.FailedException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        });
+    }
+}
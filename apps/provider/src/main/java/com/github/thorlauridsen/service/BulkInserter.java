@@ -0,0 +1,139 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.BulkConfig;
+import com.github.thorlauridsen.model.BulkInsertReport;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Inserts a stream of rows in chunks.
+ * <p>
+ * The request body is parsed incrementally with the Jackson streaming API and may either be
+ * a JSON array or newline delimited JSON. Rows are collected into chunks of the configured size,
+ * and each chunk is saved in its own transaction through the {@link ConnectionLimiter}.
+ * This way memory usage is bounded by the chunk size regardless of the size of the request,
+ * and a large load does not hold a single connection or transaction for its whole duration.
+ * <p>
+ * Each row is validated with the same {@link Validator} as a single row posted with @Valid.
+ * As every column is required, a row which is null or has a null field is rejected as well.
+ * An invalid row fails the request with {@link InvalidRowException} before its chunk is saved.
+ * Chunks which were committed before a failure stay committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkInserter {
+
+    private final BulkConfig bulkConfig;
+    private final ConnectionLimiter connectionLimiter;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+
+    /**
+     * Insert the rows of a request body in chunks.
+     *
+     * @param name      Name of the database call, used as a tag on the limiter metrics.
+     * @param body      Request body with a JSON array or newline delimited JSON.
+     * @param type      The type of the rows.
+     * @param saveChunk Saves a chunk of rows in a single transaction and returns the number of saved rows.
+     * @param <T>       The type of the rows.
+     * @return {@link BulkInsertReport} with the number of inserted rows and the throughput.
+     * @throws IOException If the request body could not be read.
+     */
+    public <T> BulkInsertReport insert(
+            String name,
+            InputStream body,
+            Class<T> type,
+            ToIntFunction<List<T>> saveChunk
+    ) throws IOException {
+        val chunkSize = bulkConfig.getChunkSize();
+        val start = System.nanoTime();
+        var inserted = 0L;
+        var chunks = 0;
+        var row = 0L;
+
+        try (val rows = jsonMapper.readerFor(type).<T>readValues(body)) {
+            val chunk = new ArrayList<T>(chunkSize);
+            while (rows.hasNext()) {
+                chunk.add(validate(++row, rows.next()));
+                if (chunk.size() == chunkSize) {
+                    inserted += save(name, chunk, saveChunk);
+                    chunks++;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inserted += save(name, chunk, saveChunk);
+                chunks++;
+            }
+        }
+
+        val duration = Duration.ofNanos(System.nanoTime() - start);
+        val seconds = Math.max(duration.toNanos(), 1) / 1_000_000_000.0;
+        val report = new BulkInsertReport(inserted, chunks, duration.toMillis(), inserted / seconds);
+        log.info("Inserted {} rows in {} chunks in {} ms ({} rows/s)",
+                inserted, chunks, report.durationMs(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Validate a row before it is added to a chunk.
+     *
+     * @param number Number of the row in the request body, starting from 1.
+     * @param row    The row to validate.
+     * @param <T>    The type of the row.
+     * @return The valid row.
+     * @throws InvalidRowException If the row is null, violates a constraint or has a null field.
+     */
+    private <T> T validate(long number, T row) {
+        if (row == null) {
+            throw new InvalidRowException(number, "row is null");
+        }
+        val violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            throw new InvalidRowException(number, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining(", ")));
+        }
+        val components = row.getClass().getRecordComponents();
+        if (components == null) {
+            return row;
+        }
+        for (val component : components) {
+            try {
+                if (component.getAccessor().invoke(row) == null) {
+                    throw new InvalidRowException(number, component.getName() + " must not be null");
+                }
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Could not read " + component.getName() + " of row " + number, e);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Save a chunk of rows through the {@link ConnectionLimiter} and clear the chunk.
+     *
+     * @param name      Name of the database call.
+     * @param chunk     The rows to save.
+     * @param saveChunk Saves the rows in a single transaction.
+     * @param <T>       The type of the rows.
+     * @return Number of saved rows.
+     */
+    private <T> int save(String name, List<T> chunk, ToIntFunction<List<T>> saveChunk) {
+        val saved = connectionLimiter.execute(name, () -> saveChunk.applyAsInt(chunk));
+        chunk.clear();
+        return saved;
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.thorlauridsen.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.LinkedHashSet;
+import java.util.List;
+import lombok.val;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the hit ratio of each Hibernate cache region as a gauge.
+ * <p>
+ * Hibernate only exposes hit and miss counters, and the query cache counters are not tagged by region.
+ * The gauge provider.cache.hit.ratio is tagged by region and holds the hits divided by the
+ * requests of the region since startup, for the entity regions as well as the query results region.
+ * It is NaN until the region has been requested.
+ * <p>
+ * Regions only exist when the second-level cache is enabled, so nothing is registered otherwise.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    /**
+     * Constructor for cache metrics.
+     *
+     * @param entityManagerFactory {@link EntityManagerFactory} to read the cache statistics from.
+     */
+    public CacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Register a hit ratio gauge for each cache region.
+     *
+     * @param registry {@link MeterRegistry} to register the gauges in.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        val regions = new LinkedHashSet<>(List.of(statistics.getSecondLevelCacheRegionNames()));
+        if (!regions.isEmpty()) {
+            regions.add(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        }
+        for (val region : regions) {
+            Gauge.builder("provider.cache.hit.ratio", () -> hitRatio(region))
+                    .description("Ratio of cache requests served from the region since startup")
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Calculate the hit ratio of a cache region.
+     *
+     * @param region Name of the cache region.
+     * @return Hits divided by hits and misses, or NaN if the region has not been requested.
+     */
+    private double hitRatio(String region) {
+        val regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        val hits = regionStatistics.getHitCount();
+        val requests = hits + regionStatistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+}
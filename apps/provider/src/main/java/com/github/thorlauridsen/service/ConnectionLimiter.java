@@ -0,0 +1,128 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.LimiterConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the number of concurrent database calls to the size of the connection pool.
+ * <p>
+ * Requests are handled on virtual threads, so thousands of requests can be in flight at once.
+ * Without a limit, all of them would block inside the connection pool waiting for a connection,
+ * and each would fail with a connection timeout once the pool is exhausted for too long.
+ * With the limit, calls wait in a fair semaphore in front of the pool instead, and are
+ * rejected with {@link LimiterTimeoutException} if they cannot acquire a permit in time.
+ * <p>
+ * The following metrics are recorded, tagged by the name of the database call:
+ * - provider.db.queue: Timer with the time spent waiting for a permit, tagged by whether the permit
+ *   was acquired, rejected after the acquire timeout or the wait was interrupted.
+ * - provider.db.execution: Timer with the time spent holding a permit.
+ * - provider.db.waiting: Gauge with the number of calls waiting for a permit.
+ * - provider.db.permits.available: Gauge with the number of available permits.
+ */
+@Component
+@Slf4j
+public class ConnectionLimiter {
+
+    private final LimiterConfig limiterConfig;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore semaphore;
+
+    /**
+     * Constructor for connection limiter.
+     *
+     * @param limiterConfig {@link LimiterConfig} with the limiter settings.
+     * @param dataSource    {@link DataSource} used to look up the size of the connection pool.
+     * @param meterRegistry {@link MeterRegistry} to record the metrics in.
+     */
+    public ConnectionLimiter(LimiterConfig limiterConfig, DataSource dataSource, MeterRegistry meterRegistry) {
+        this.limiterConfig = limiterConfig;
+        this.meterRegistry = meterRegistry;
+
+        val permits = limiterConfig.getPermits() > 0 ? limiterConfig.getPermits() : poolSize(dataSource);
+        log.info("Limiting concurrent database calls to {}", permits);
+        this.semaphore = new Semaphore(permits, true);
+
+        Gauge.builder("provider.db.waiting", semaphore, Semaphore::getQueueLength)
+                .description("Number of database calls waiting for a permit")
+                .register(meterRegistry);
+        Gauge.builder("provider.db.permits.available", semaphore, Semaphore::availablePermits)
+                .description("Number of available database permits")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Execute a database call once a permit has been acquired.
+     *
+     * @param name Name of the database call, used as a tag on the metrics.
+     * @param call The database call to execute.
+     * @param <T>  The result type of the database call.
+     * @return The result of the database call.
+     * @throws LimiterTimeoutException     If no permit could be acquired within the acquire timeout.
+     * @throws LimiterInterruptedException If interrupted while waiting for a permit.
+     */
+    public <T> T execute(String name, Supplier<T> call) {
+        val queued = System.nanoTime();
+        try {
+            if (!semaphore.tryAcquire(limiterConfig.getAcquireTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                record("provider.db.queue", name, queued, "rejected");
+                throw new LimiterTimeoutException(name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            record("provider.db.queue", name, queued, "interrupted");
+            throw new LimiterInterruptedException(name, e);
+        }
+        val started = record("provider.db.queue", name, queued, "acquired");
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+            record("provider.db.execution", name, started, "completed");
+        }
+    }
+
+    /**
+     * Record the time since the given start in a timer.
+     *
+     * @param timer   Name of the timer.
+     * @param name    Name of the database call.
+     * @param start   Start time in nanoseconds.
+     * @param outcome Outcome of the measured phase.
+     * @return The current time in nanoseconds.
+     */
+    private long record(String timer, String name, long start, String outcome) {
+        val now = System.nanoTime();
+        Timer.builder(timer)
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(now - start, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Look up the maximum size of the connection pool.
+     *
+     * @param dataSource The data source of the connection pool.
+     * @return The maximum size of the connection pool.
+     */
+    private static int poolSize(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        } catch (SQLException e) {
+            throw new IllegalStateException("The data source is not a Hikari connection pool, configure the permits", e);
+        }
+    }
+}
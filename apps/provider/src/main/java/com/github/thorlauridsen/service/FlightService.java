@@ -1,8 +1,15 @@
 package com.github.thorlauridsen.service;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Flight;
 import com.github.thorlauridsen.model.IFlightRepo;
+import com.github.thorlauridsen.model.TableVersion;
+import com.github.thorlauridsen.tracing.Tracing;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -11,7 +18,11 @@ import org.springframework.stereotype.Service;
 /**
  * This service is responsible for:
  * - Saving flights.
+ * - Bulk inserting flights.
  * - Fetching flights.
+ * - Fetching pages of flights.
+ * - Searching flights.
+ * - Getting the version of the flights.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -19,6 +30,9 @@ import org.springframework.stereotype.Service;
 public class FlightService {
 
     private final IFlightRepo flightRepo;
+    private final LatencyInjector latencyInjector;
+    private final BulkInserter bulkInserter;
+    private final ConnectionLimiter connectionLimiter;
 
     /**
      * Save a flight.
@@ -28,22 +42,106 @@ public class FlightService {
      */
     public Flight save(Flight flight) {
         log.info("Saving flight {} to database...", flight);
-        return flightRepo.save(flight);
+        return connectionLimiter.execute("flights.save", () -> flightRepo.save(flight));
+    }
+
+    /**
+     * Bulk insert flights from a JSON array or newline delimited JSON.
+     * The flights are committed in chunks with {@link BulkInserter}.
+     *
+     * @param body Request body with the flights to insert.
+     * @return {@link BulkInsertReport} with the number of inserted flights and the throughput.
+     * @throws IOException If the request body could not be read.
+     */
+    public BulkInsertReport saveAll(InputStream body) throws IOException {
+        log.info("Bulk inserting flights to database...");
+        return bulkInserter.insert("flights.saveAll", body, Flight.class, flightRepo::saveAll);
     }
 
     /**
      * Get all flights.
-     * This function has an artificial delay of 2000ms to simulate a slow response.
+     * This function is delayed by {@link LatencyInjector} to simulate a slow response.
+     * The latency profile of the endpoint can be changed at runtime.
+     * The function and the repository call are recorded as spans in the trace of the request.
      *
      * @return List of {@link Flight}.
      */
     public List<Flight> findAll() throws InterruptedException {
-        log.info("Retrieving all flights from database...");
+        return Tracing.span("FlightService.findAll", () -> {
+            log.info("Retrieving all flights from database...");
+
+            val flights = Tracing.span(
+                    "FlightRepo.findAll",
+                    () -> connectionLimiter.execute("flights.findAll", flightRepo::findAll)
+            );
+            latencyInjector.inject("flights");
+
+            log.info("Found {} flights", flights.size());
+            return flights;
+        });
+    }
+
+    /**
+     * Get a page of flights using keyset pagination.
+     *
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of flights on the page.
+     * @return {@link CursorPage} of {@link Flight}.
+     */
+    public CursorPage<Flight> findPage(UUID after, int limit) {
+        log.info("Retrieving page of flights from database...");
 
-        val flights = flightRepo.findAll();
-        Thread.sleep(2000);
+        val page = connectionLimiter.execute("flights.findPage", () -> flightRepo.findPage(after, limit));
 
-        log.info("Found {} flights", flights.size());
-        return flights;
+        log.info("Found {} flights on page", page.items().size());
+        return page;
+    }
+
+    /**
+     * Search flights by the given criteria using keyset pagination.
+     * The first page of a search is delayed by {@link LatencyInjector} with the profile of the flights.search endpoint.
+     * The following pages continue the same search, so they are not delayed again.
+     *
+     * @param origin      Origin of the flights. Null matches any.
+     * @param destination Destination of the flights. Null matches any.
+     * @param airline     Airline of the flights. Null matches any.
+     * @param after       Cursor of the previous page, or null to get the first page.
+     * @param limit       Maximum number of flights on the page.
+     * @return {@link CursorPage} of {@link Flight} matching the criteria, ordered by id.
+     */
+    public CursorPage<Flight> search(
+            String origin,
+            String destination,
+            String airline,
+            UUID after,
+            int limit
+    ) throws InterruptedException {
+        return Tracing.span("FlightService.search", () -> {
+            log.info("Searching flights in database...");
+
+            val flights = Tracing.span(
+                    "FlightRepo.search",
+                    () -> connectionLimiter.execute(
+                            "flights.search",
+                            () -> flightRepo.search(origin, destination, airline, after, limit)
+                    )
+            );
+            if (after == null) {
+                latencyInjector.inject("flights.search");
+            }
+
+            log.info("Found {} matching flights on page", flights.items().size());
+            return flights;
+        });
+    }
+
+    /**
+     * Get the version of the flights, which changes every time flights are saved.
+     * The version is kept in memory, so it is read without a database call.
+     *
+     * @return {@link TableVersion} of the flights.
+     */
+    public TableVersion version() {
+        return flightRepo.version();
     }
 }
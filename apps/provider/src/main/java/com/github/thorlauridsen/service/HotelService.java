@@ -1,8 +1,15 @@
 package com.github.thorlauridsen.service;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Hotel;
 import com.github.thorlauridsen.model.IHotelRepo;
+import com.github.thorlauridsen.model.TableVersion;
+import com.github.thorlauridsen.tracing.Tracing;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -11,7 +18,11 @@ import org.springframework.stereotype.Service;
 /**
  * This service is responsible for:
  * - Saving hotels.
+ * - Bulk inserting hotels.
  * - Fetching hotels.
+ * - Fetching pages of hotels.
+ * - Searching hotels.
+ * - Getting the version of the hotels.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -19,6 +30,9 @@ import org.springframework.stereotype.Service;
 public class HotelService {
 
     private final IHotelRepo hotelRepo;
+    private final LatencyInjector latencyInjector;
+    private final BulkInserter bulkInserter;
+    private final ConnectionLimiter connectionLimiter;
 
     /**
      * Save a hotel.
@@ -28,22 +42,96 @@ public class HotelService {
      */
     public Hotel save(Hotel hotel) {
         log.info("Saving hotel {} to database...", hotel);
-        return hotelRepo.save(hotel);
+        return connectionLimiter.execute("hotels.save", () -> hotelRepo.save(hotel));
+    }
+
+    /**
+     * Bulk insert hotels from a JSON array or newline delimited JSON.
+     * The hotels are committed in chunks with {@link BulkInserter}.
+     *
+     * @param body Request body with the hotels to insert.
+     * @return {@link BulkInsertReport} with the number of inserted hotels and the throughput.
+     * @throws IOException If the request body could not be read.
+     */
+    public BulkInsertReport saveAll(InputStream body) throws IOException {
+        log.info("Bulk inserting hotels to database...");
+        return bulkInserter.insert("hotels.saveAll", body, Hotel.class, hotelRepo::saveAll);
     }
 
     /**
      * Get all hotels.
-     * This function has an artificial delay of 2000ms to simulate a slow response.
+     * This function is delayed by {@link LatencyInjector} to simulate a slow response.
+     * The latency profile of the endpoint can be changed at runtime.
+     * The function and the repository call are recorded as spans in the trace of the request.
      *
      * @return List of {@link Hotel}.
      */
     public List<Hotel> findAll() throws InterruptedException {
-        log.info("Retrieving all hotels from database...");
+        return Tracing.span("HotelService.findAll", () -> {
+            log.info("Retrieving all hotels from database...");
+
+            val hotels = Tracing.span(
+                    "HotelRepo.findAll",
+                    () -> connectionLimiter.execute("hotels.findAll", hotelRepo::findAll)
+            );
+            latencyInjector.inject("hotels");
+
+            log.info("Found {} hotels", hotels.size());
+            return hotels;
+        });
+    }
+
+    /**
+     * Get a page of hotels using keyset pagination.
+     *
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of hotels on the page.
+     * @return {@link CursorPage} of {@link Hotel}.
+     */
+    public CursorPage<Hotel> findPage(UUID after, int limit) {
+        log.info("Retrieving page of hotels from database...");
 
-        val hotels = hotelRepo.findAll();
-        Thread.sleep(2000);
+        val page = connectionLimiter.execute("hotels.findPage", () -> hotelRepo.findPage(after, limit));
 
-        log.info("Found {} hotels", hotels.size());
-        return hotels;
+        log.info("Found {} hotels on page", page.items().size());
+        return page;
+    }
+
+    /**
+     * Search hotels by the given criteria using keyset pagination.
+     * The first page of a search is delayed by {@link LatencyInjector} with the profile of the hotels.search endpoint.
+     * The following pages continue the same search, so they are not delayed again.
+     *
+     * @param location  Location of the hotels. Null matches any.
+     * @param minRating Minimum rating of the hotels. Null matches any.
+     * @param after     Cursor of the previous page, or null to get the first page.
+     * @param limit     Maximum number of hotels on the page.
+     * @return {@link CursorPage} of {@link Hotel} matching the criteria, ordered by id.
+     */
+    public CursorPage<Hotel> search(String location, Double minRating, UUID after, int limit) throws InterruptedException {
+        return Tracing.span("HotelService.search", () -> {
+            log.info("Searching hotels in database...");
+
+            val hotels = Tracing.span(
+                    "HotelRepo.search",
+                    () -> connectionLimiter.execute("hotels.search", () -> hotelRepo.search(location, minRating, after, limit))
+            );
+            if (after == null) {
+                latencyInjector.inject("hotels.search");
+            }
+
+            log.info("Found {} matching hotels on page", hotels.items().size());
+            return hotels;
+        });
+    }
+
+    /**
+     * Get the version of the hotels, which changes every time hotels are saved.
+     * The version is kept in memory, so it is read without a database call.
+     *
+     * @return {@link TableVersion} of the hotels.
+     */
+    public TableVersion version() {
+        return hotelRepo.version();
     }
 }
@@ -0,0 +1,22 @@
+package com.github.thorlauridsen.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request fails because of the error rate of its latency profile.
+ * The request is answered with 503 Service Unavailable, which a caller should treat
+ * the same as a real failure of the provider.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class InjectedFaultException extends RuntimeException {
+
+    /**
+     * Constructor for injected fault exception.
+     *
+     * @param endpoint Name of the endpoint which failed.
+     */
+    public InjectedFaultException(String endpoint) {
+        super("Injected fault for " + endpoint);
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.thorlauridsen.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a row of a bulk insert is invalid.
+ * The request is answered with 400 Bad Request. The chunk of the invalid row is not saved,
+ * while the chunks before it stay committed, so the number of the row tells the caller where to resume.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRowException extends RuntimeException {
+
+    /**
+     * Constructor for invalid row exception.
+     *
+     * @param row    Number of the row in the request body, starting from 1.
+     * @param reason Why the row is invalid.
+     */
+    public InvalidRowException(long row, String reason) {
+        super("Row " + row + " is invalid: " + reason);
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.thorlauridsen.service;
+
+import com.github.thorlauridsen.config.LatencyConfig;
+import com.github.thorlauridsen.config.LatencyProfile;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for injecting latency and faults into the endpoints of the provider.
+ * <p>
+ * Each endpoint has a {@link LatencyProfile} which is initialized from {@link LatencyConfig}
+ * and can be replaced at runtime. This replaces a hard-coded delay, so the provider
+ * can reproduce the tail latency and failures of a real service when load testing the gateway.
+ */
+@Service
+@Slf4j
+public class LatencyInjector {
+
+    /**
+     * Upper bound of a delay. A log-normal distribution with a large sigma can draw
+     * a delay which overflows, so every delay is clamped to this value.
+     */
+    static final Duration MAX_DELAY = Duration.ofMinutes(5);
+
+    private final LatencyConfig latencyConfig;
+    private final Map<String, LatencyProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for latency injector.
+     *
+     * @param latencyConfig {@link LatencyConfig} with the initial profiles.
+     */
+    public LatencyInjector(LatencyConfig latencyConfig) {
+        this.latencyConfig = latencyConfig;
+        if (latencyConfig.getEndpoints() != null) {
+            profiles.putAll(latencyConfig.getEndpoints());
+        }
+    }
+
+    /**
+     * Get the profile of an endpoint.
+     *
+     * @param endpoint Name of the endpoint, for example flights.
+     * @return {@link LatencyProfile} of the endpoint, or the default profile.
+     */
+    public LatencyProfile profile(String endpoint) {
+        return profiles.getOrDefault(endpoint, latencyConfig.getDefaults());
+    }
+
+    /**
+     * Get the profiles of all endpoints which have a profile of their own.
+     *
+     * @return Map of profiles by endpoint.
+     */
+    public Map<String, LatencyProfile> profiles() {
+        return Map.copyOf(profiles);
+    }
+
+    /**
+     * Replace the profile of an endpoint.
+     *
+     * @param endpoint Name of the endpoint.
+     * @param profile  The new {@link LatencyProfile}.
+     */
+    public void update(String endpoint, LatencyProfile profile) {
+        log.info("Updating latency profile of {} to {}", endpoint, profile);
+        profiles.put(endpoint, profile);
+    }
+
+    /**
+     * Reset the profile of an endpoint to the configured profile.
+     *
+     * @param endpoint Name of the endpoint.
+     */
+    public void reset(String endpoint) {
+        log.info("Resetting latency profile of {}", endpoint);
+        val configured = Optional.ofNullable(latencyConfig.getEndpoints()).map(endpoints -> endpoints.get(endpoint));
+        configured.ifPresentOrElse(profile -> profiles.put(endpoint, profile), () -> profiles.remove(endpoint));
+    }
+
+    /**
+     * Delay the current request according to the profile of an endpoint,
+     * and fail it according to the error rate of the profile.
+     *
+     * @param endpoint Name of the endpoint.
+     * @throws InterruptedException   If interrupted while delaying.
+     * @throws InjectedFaultException If the request should fail.
+     */
+    public void inject(String endpoint) throws InterruptedException {
+        val profile = profile(endpoint);
+        Thread.sleep(delay(profile));
+        if (profile.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < profile.errorRate()) {
+            throw new InjectedFaultException(endpoint);
+        }
+    }
+
+    /**
+     * Draw a delay from a profile.
+     *
+     * @param profile The profile to draw the delay from.
+     * @return The delay, never negative and never longer than {@link #MAX_DELAY}.
+     */
+    static Duration delay(LatencyProfile profile) {
+        val random = ThreadLocalRandom.current();
+        val max = MAX_DELAY.toNanos();
+        long base = switch (profile.distribution()) {
+            case FIXED -> profile.delay().toNanos();
+            case UNIFORM -> profile.max().compareTo(profile.min()) > 0
+                    ? random.nextLong(profile.min().toNanos(), profile.max().toNanos() + 1)
+                    : profile.min().toNanos();
+            case LOG_NORMAL -> (long) (profile.delay().toNanos() * Math.exp(profile.sigma() * random.nextGaussian()));
+            case RECORDED -> profile.samples().isEmpty()
+                    ? 0
+                    : profile.samples().get(random.nextInt(profile.samples().size())).toNanos();
+        };
+        long jitter = profile.jitter().isZero()
+                ? 0
+                : random.nextLong(-profile.jitter().toNanos(), profile.jitter().toNanos() + 1);
+        return Duration.ofNanos(Math.clamp(Math.clamp(base, 0, max) + Math.clamp(jitter, -max, max), 0, max));
+    }
+}
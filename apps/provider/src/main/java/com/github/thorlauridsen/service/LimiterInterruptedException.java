@@ -0,0 +1,20 @@
+package com.github.thorlauridsen.service;
+
+/**
+ * Exception thrown when a database call was interrupted while waiting for a permit from {@link ConnectionLimiter}.
+ * The request was cancelled, for example because the client disconnected, so unlike
+ * {@link LimiterTimeoutException} it does not mean that the database is saturated.
+ * The interrupt flag of the thread is set again before the exception is thrown.
+ */
+public class LimiterInterruptedException extends RuntimeException {
+
+    /**
+     * Constructor for limiter interrupted exception.
+     *
+     * @param name  Name of the database call which was interrupted.
+     * @param cause The interrupt received while waiting for a permit.
+     */
+    public LimiterInterruptedException(String name, InterruptedException cause) {
+        super("Interrupted while waiting for a database permit for " + name, cause);
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.thorlauridsen.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a database call could not acquire a permit from {@link ConnectionLimiter} in time.
+ * The request is answered with 503 Service Unavailable, so the caller can retry
+ * instead of waiting in an ever growing queue.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LimiterTimeoutException extends RuntimeException {
+
+    /**
+     * Constructor for limiter timeout exception.
+     *
+     * @param name Name of the database call which timed out.
+     */
+    public LimiterTimeoutException(String name) {
+        super("Timed out waiting for a database permit for " + name);
+    }
+}
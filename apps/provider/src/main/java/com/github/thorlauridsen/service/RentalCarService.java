@@ -1,8 +1,15 @@
 package com.github.thorlauridsen.service;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.IRentalCarRepo;
 import com.github.thorlauridsen.model.RentalCar;
+import com.github.thorlauridsen.model.TableVersion;
+import com.github.thorlauridsen.tracing.Tracing;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -11,7 +18,11 @@ import org.springframework.stereotype.Service;
 /**
  * This service is responsible for:
  * - Saving rental cars.
+ * - Bulk inserting rental cars.
  * - Fetching rental cars.
+ * - Fetching pages of rental cars.
+ * - Searching rental cars.
+ * - Getting the version of the rental cars.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -19,6 +30,9 @@ import org.springframework.stereotype.Service;
 public class RentalCarService {
 
     private final IRentalCarRepo rentalCarRepo;
+    private final LatencyInjector latencyInjector;
+    private final BulkInserter bulkInserter;
+    private final ConnectionLimiter connectionLimiter;
 
     /**
      * Save a rental car.
@@ -28,22 +42,99 @@ public class RentalCarService {
      */
     public RentalCar save(RentalCar rentalCar) {
         log.info("Saving rental car {} to database...", rentalCar);
-        return rentalCarRepo.save(rentalCar);
+        return connectionLimiter.execute("rentalcars.save", () -> rentalCarRepo.save(rentalCar));
+    }
+
+    /**
+     * Bulk insert rental cars from a JSON array or newline delimited JSON.
+     * The rental cars are committed in chunks with {@link BulkInserter}.
+     *
+     * @param body Request body with the rental cars to insert.
+     * @return {@link BulkInsertReport} with the number of inserted rental cars and the throughput.
+     * @throws IOException If the request body could not be read.
+     */
+    public BulkInsertReport saveAll(InputStream body) throws IOException {
+        log.info("Bulk inserting rental cars to database...");
+        return bulkInserter.insert("rentalcars.saveAll", body, RentalCar.class, rentalCarRepo::saveAll);
     }
 
     /**
      * Get all rental cars.
-     * This function has an artificial delay of 2000ms to simulate a slow response.
+     * This function is delayed by {@link LatencyInjector} to simulate a slow response.
+     * The latency profile of the endpoint can be changed at runtime.
+     * The function and the repository call are recorded as spans in the trace of the request.
      *
      * @return List of {@link RentalCar}.
      */
     public List<RentalCar> findAll() throws InterruptedException {
-        log.info("Retrieving all rental cars from database...");
+        return Tracing.span("RentalCarService.findAll", () -> {
+            log.info("Retrieving all rental cars from database...");
+
+            val rentalCars = Tracing.span(
+                    "RentalCarRepo.findAll",
+                    () -> connectionLimiter.execute("rentalcars.findAll", rentalCarRepo::findAll)
+            );
+            latencyInjector.inject("rentalcars");
+
+            log.info("Found {} rental cars", rentalCars.size());
+            return rentalCars;
+        });
+    }
+
+    /**
+     * Get a page of rental cars using keyset pagination.
+     *
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of rental cars on the page.
+     * @return {@link CursorPage} of {@link RentalCar}.
+     */
+    public CursorPage<RentalCar> findPage(UUID after, int limit) {
+        log.info("Retrieving page of rental cars from database...");
 
-        val rentalCars = rentalCarRepo.findAll();
-        Thread.sleep(2000);
+        val page = connectionLimiter.execute("rentalcars.findPage", () -> rentalCarRepo.findPage(after, limit));
 
-        log.info("Found {} rental cars", rentalCars.size());
-        return rentalCars;
+        log.info("Found {} rental cars on page", page.items().size());
+        return page;
+    }
+
+    /**
+     * Search rental cars by the given criteria using keyset pagination.
+     * The first page of a search is delayed by {@link LatencyInjector} with the profile of the rentalcars.search endpoint.
+     * The following pages continue the same search, so they are not delayed again.
+     *
+     * @param location Location of the rental cars. Null matches any.
+     * @param company  Company of the rental cars. Null matches any.
+     * @param after    Cursor of the previous page, or null to get the first page.
+     * @param limit    Maximum number of rental cars on the page.
+     * @return {@link CursorPage} of {@link RentalCar} matching the criteria, ordered by id.
+     */
+    public CursorPage<RentalCar> search(String location, String company, UUID after, int limit) throws InterruptedException {
+        return Tracing.span("RentalCarService.search", () -> {
+            log.info("Searching rental cars in database...");
+
+            val rentalCars = Tracing.span(
+                    "RentalCarRepo.search",
+                    () -> connectionLimiter.execute(
+                            "rentalcars.search",
+                            () -> rentalCarRepo.search(location, company, after, limit)
+                    )
+            );
+            if (after == null) {
+                latencyInjector.inject("rentalcars.search");
+            }
+
+            log.info("Found {} matching rental cars on page", rentalCars.items().size());
+            return rentalCars;
+        });
+    }
+
+    /**
+     * Get the version of the rental cars, which changes every time rental cars are saved.
+     * The version is kept in memory, so it is read without a database call.
+     *
+     * @return {@link TableVersion} of the rental cars.
+     */
+    public TableVersion version() {
+        return rentalCarRepo.version();
     }
 }
@@ -0,0 +1,61 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.model.TravelAggregate;
+import java.time.Duration;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static com.github.thorlauridsen.controller.BaseEndpoint.AGGREGATE_BASE_ENDPOINT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the AggregateController.
+ * A local Docker instance is required to run the tests as Testcontainers is used.
+ */
+@ActiveProfiles("postgres")
+@AutoConfigureRestTestClient
+@SpringBootTest(properties = "provider.latency.defaults.delay=1s")
+@Testcontainers
+class AggregateControllerTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:18");
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Test
+    void getAggregate_fetches_lists_concurrently() {
+        val start = System.nanoTime();
+
+        val aggregate = restTestClient.get()
+                .uri(AGGREGATE_BASE_ENDPOINT)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TravelAggregate.class)
+                .returnResult()
+                .getResponseBody();
+
+        val duration = Duration.ofNanos(System.nanoTime() - start);
+
+        assertNotNull(aggregate);
+        assertEquals(3, aggregate.flights().size());
+        assertEquals(3, aggregate.hotels().size());
+        assertEquals(3, aggregate.rentalCars().size());
+        assertTrue(duration.compareTo(Duration.ofSeconds(3)) < 0, "Lists were not fetched concurrently");
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.service.ConnectionLimiter;
+import com.github.thorlauridsen.service.LimiterInterruptedException;
+import com.github.thorlauridsen.service.LimiterTimeoutException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static com.github.thorlauridsen.controller.BaseEndpoint.FLIGHT_BASE_ENDPOINT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the ConnectionLimiter when all of its permits are taken.
+ * The limiter has a single permit, which is held by a database call that does not
+ * complete until the test releases it, so every other database call is rejected.
+ * A local Docker instance is required to run the tests as Testcontainers is used.
+ */
+@ActiveProfiles("postgres")
+@AutoConfigureRestTestClient
+@SpringBootTest(properties = {
+        "provider.limiter.permits=1",
+        "provider.limiter.acquireTimeout=100ms",
+        "provider.latency.defaults.delay=0ms"
+})
+@Testcontainers
+class ConnectionLimiterTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:18");
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private ConnectionLimiter connectionLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void saturatedPermits_rejectDatabaseCallsWithServiceUnavailable() throws Exception {
+
+        val held = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+
+        try (val executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            val holder = executor.submit(() -> connectionLimiter.execute("test.hold", () -> {
+                held.countDown();
+                awaitQuietly(release);
+                return null;
+            }));
+            held.await();
+
+            assertThrows(
+                    LimiterTimeoutException.class,
+                    () -> connectionLimiter.execute("test.rejected", () -> null)
+            );
+
+            restTestClient.get()
+                    .uri(FLIGHT_BASE_ENDPOINT + "/page")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isEqualTo(503);
+
+            release.countDown();
+            holder.get();
+        }
+
+        val rejected = meterRegistry.get("provider.db.queue")
+                .tag("name", "flights.findPage")
+                .tag("outcome", "rejected")
+                .timer();
+        assertEquals(1, rejected.count());
+
+        restTestClient.get()
+                .uri(FLIGHT_BASE_ENDPOINT + "/page")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void interruptedWait_isNotCountedAsRejection() {
+
+        Thread.currentThread().interrupt();
+        assertThrows(
+                LimiterInterruptedException.class,
+                () -> connectionLimiter.execute("test.interrupted", () -> null)
+        );
+        assertTrue(Thread.interrupted());
+
+        val interrupted = meterRegistry.get("provider.db.queue")
+                .tag("name", "test.interrupted")
+                .tag("outcome", "interrupted")
+                .timer();
+        assertEquals(1, interrupted.count());
+        assertNull(meterRegistry.find("provider.db.queue")
+                .tag("name", "test.interrupted")
+                .tag("outcome", "rejected")
+                .timer());
+    }
+
+        private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
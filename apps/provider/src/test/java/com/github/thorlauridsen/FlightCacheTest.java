@@ -0,0 +1,119 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.model.CursorPage;
+import com.github.thorlauridsen.model.Flight;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import tools.jackson.databind.json.JsonMapper;
+
+import static com.github.thorlauridsen.controller.BaseEndpoint.FLIGHT_BASE_ENDPOINT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the Hibernate second-level and query cache of the flights.
+ * The cache is disabled by default, so it is only enabled for this test class.
+ * A local Docker instance is required to run the tests as Testcontainers is used.
+ */
+@ActiveProfiles("postgres")
+@AutoConfigureRestTestClient
+@SpringBootTest(properties = {
+        "provider.cache.enabled=true",
+        "provider.latency.defaults.delay=0ms"
+})
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FlightCacheTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:18");
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @Order(1)
+    void searchFlightsTwice_servedFromQueryCache() {
+
+        searchFlights("Origin A");
+
+        val hits = meterRegistry.get("hibernate.cache.query.requests")
+                .tag("result", "hit")
+                .functionCounter();
+        val hitsBefore = hits.count();
+
+        searchFlights("Origin A");
+
+        assertTrue(hits.count() > hitsBefore);
+
+        val hitRatio = meterRegistry.get("provider.cache.hit.ratio")
+                .tag("region", "default-query-results-region")
+                .gauge();
+        assertTrue(hitRatio.value() > 0);
+    }
+
+    @Test
+    @Order(2)
+    void saveFlight_invalidatesCachedSearch() {
+
+        val cached = searchFlights("Origin A");
+        assertEquals(1, cached.items().size());
+
+        val flight = new Flight("AB999", "Airline Z", "Origin A", "Destination A");
+        restTestClient.post()
+                .uri(FLIGHT_BASE_ENDPOINT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonMapper.writeValueAsString(flight))
+                .exchange()
+                .expectStatus().isOk();
+
+        val page = searchFlights("Origin A");
+        assertEquals(2, page.items().size());
+        assertTrue(page.items().contains(flight));
+    }
+
+    private CursorPage<Flight> searchFlights(String origin) {
+        val typeReference = new ParameterizedTypeReference<@NotNull CursorPage<Flight>>() {
+        };
+
+        val page = restTestClient.get()
+                .uri(builder -> builder.path(FLIGHT_BASE_ENDPOINT + "/search")
+                        .queryParam("origin", origin)
+                        .queryParam("destination", "Destination A")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(typeReference)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(page);
+        return page;
+    }
+}
@@ -1,7 +1,15 @@
 package com.github.thorlauridsen;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Flight;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.MethodOrderer;
@@ -13,6 +21,7 @@ import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTe
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.client.RestTestClient;
@@ -23,7 +32,10 @@ import tools.jackson.databind.json.JsonMapper;
 
 import static com.github.thorlauridsen.controller.BaseEndpoint.FLIGHT_BASE_ENDPOINT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test class for testing the FlightController.
@@ -46,6 +58,9 @@ class FlightControllerTest {
     @Autowired
     private JsonMapper jsonMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     @Order(1)
     void getAllFlights_success() {
@@ -94,4 +109,247 @@ class FlightControllerTest {
         assertEquals(flight.origin(), saved.origin());
         assertEquals(flight.destination(), saved.destination());
     }
+
+    @Test
+    @Order(3)
+    void getPagesOfFlights_success() {
+
+        val typeReference = new ParameterizedTypeReference<@NotNull CursorPage<Flight>>() {
+        };
+
+        val flights = new ArrayList<Flight>();
+        UUID cursor = null;
+        var pages = 0;
+        do {
+            val after = cursor;
+            val page = restTestClient.get()
+                    .uri(builder -> builder.path(FLIGHT_BASE_ENDPOINT + "/page")
+                            .queryParam("limit", 2)
+                            .queryParamIfPresent("after", Optional.ofNullable(after))
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(typeReference)
+                    .returnResult()
+                    .getResponseBody();
+
+            assertNotNull(page);
+            flights.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(4, flights.size());
+        assertEquals(2, pages);
+        assertNull(cursor);
+    }
+
+    @Test
+    @Order(4)
+    void databaseCalls_recordQueueAndExecutionTime() {
+
+        restTestClient.get()
+                .uri(FLIGHT_BASE_ENDPOINT + "/page")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        val queue = meterRegistry.get("provider.db.queue")
+                .tag("name", "flights.findPage")
+                .tag("outcome", "acquired")
+                .timer();
+        val execution = meterRegistry.get("provider.db.execution")
+                .tag("name", "flights.findPage")
+                .timer();
+
+        assertTrue(queue.count() > 0);
+        assertEquals(queue.count(), execution.count());
+    }
+
+    @Test
+    @Order(5)
+    void bulkInsertFlightsFromNdjson_success() {
+
+        val ndjson = IntStream.range(0, 10)
+                .mapToObj(i -> new Flight("BULK" + i, "Bulk Airline", "Origin " + i, "Destination " + i))
+                .map(jsonMapper::writeValueAsString)
+                .collect(Collectors.joining("\n"));
+
+        val report = restTestClient.post()
+                .uri(FLIGHT_BASE_ENDPOINT + "/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkInsertReport.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(report);
+        assertEquals(10, report.inserted());
+        assertEquals(1, report.chunks());
+        assertTrue(report.rowsPerSecond() > 0);
+
+        val flights = restTestClient.get()
+                .uri(FLIGHT_BASE_ENDPOINT)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<@NotNull List<Flight>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(flights);
+        assertEquals(14, flights.size());
+    }
+
+    @Test
+    @Order(6)
+    void searchFlights_success() {
+
+        val typeReference = new ParameterizedTypeReference<@NotNull CursorPage<Flight>>() {
+        };
+
+        val page = restTestClient.get()
+                .uri(builder -> builder.path(FLIGHT_BASE_ENDPOINT + "/search")
+                        .queryParam("origin", "Origin A")
+                        .queryParam("destination", "Destination A")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(typeReference)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(page);
+        assertEquals(List.of(new Flight("AB100", "Airline A", "Origin A", "Destination A")), page.items());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @Order(7)
+    void getAllFlightsWithCurrentVersion_notModifiedUntilSaved() {
+
+        val etag = restTestClient.get()
+                .uri(FLIGHT_BASE_ENDPOINT)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(etag);
+
+        restTestClient.get()
+                .uri(FLIGHT_BASE_ENDPOINT)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag);
+
+        val flight = new Flight("XY998", "New Airline", "New Origin", "New Destination");
+        restTestClient.post()
+                .uri(FLIGHT_BASE_ENDPOINT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonMapper.writeValueAsString(flight))
+                .exchange()
+                .expectStatus().isOk();
+
+        val newEtag = restTestClient.get()
+                .uri(FLIGHT_BASE_ENDPOINT)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        assertNotNull(newEtag);
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    @Order(8)
+    void bulkInsertFlightsWithInvalidRow_badRequestAndChunkNotSaved() {
+
+        val typeReference = new ParameterizedTypeReference<@NotNull List<Flight>>() {
+        };
+        val before = restTestClient.get()
+                .uri(FLIGHT_BASE_ENDPOINT)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(typeReference)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(before);
+
+        val ndjson = String.join("\n",
+                jsonMapper.writeValueAsString(new Flight("VALID1", "Bulk Airline", "Origin", "Destination")),
+                """
+                        {"flightNumber": "INVALID1", "origin": "Origin", "destination": "Destination"}"""
+        );
+
+        restTestClient.post()
+                .uri(FLIGHT_BASE_ENDPOINT + "/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjson)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        val after = restTestClient.get()
+                .uri(FLIGHT_BASE_ENDPOINT)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(typeReference)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(after);
+        assertEquals(before.size(), after.size());
+    }
+
+    @Test
+    @Order(9)
+    void searchFlightsByPage_returnsEveryMatchOnceInOrder() {
+
+        val typeReference = new ParameterizedTypeReference<@NotNull CursorPage<Flight>>() {
+        };
+
+        val flights = new ArrayList<Flight>();
+        UUID cursor = null;
+        var pages = 0;
+        do {
+            val after = cursor;
+            val page = restTestClient.get()
+                    .uri(builder -> builder.path(FLIGHT_BASE_ENDPOINT + "/search")
+                            .queryParam("airline", "Bulk Airline")
+                            .queryParam("limit", 4)
+                            .queryParamIfPresent("after", Optional.ofNullable(after))
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(typeReference)
+                    .returnResult()
+                    .getResponseBody();
+
+            assertNotNull(page);
+            flights.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(10, flights.size());
+        assertEquals(10, flights.stream().map(Flight::flightNumber).distinct().count());
+    }
 }
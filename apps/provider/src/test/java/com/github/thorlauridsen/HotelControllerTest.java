@@ -1,7 +1,12 @@
 package com.github.thorlauridsen;
 
+import com.github.thorlauridsen.model.BulkInsertReport;
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Hotel;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.MethodOrderer;
@@ -24,14 +29,16 @@ import tools.jackson.databind.json.JsonMapper;
 import static com.github.thorlauridsen.controller.BaseEndpoint.HOTEL_BASE_ENDPOINT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * Test class for testing the HotelController.
  * A local Docker instance is required to run the tests as Testcontainers is used.
+ * The bulk insert chunk size is reduced so that a bulk insert is committed in several chunks.
  */
 @ActiveProfiles("postgres")
 @AutoConfigureRestTestClient
-@SpringBootTest
+@SpringBootTest(properties = "provider.bulk.chunkSize=2")
 @Testcontainers
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class HotelControllerTest {
@@ -88,4 +95,90 @@ class HotelControllerTest {
         assertEquals(hotel.location(), saved.location());
         assertEquals(hotel.rating(), saved.rating());
     }
+
+    @Test
+    @Order(3)
+    void getPagesOfHotels_success() {
+
+        val typeReference = new ParameterizedTypeReference<@NotNull CursorPage<Hotel>>() {
+        };
+
+        val hotels = new ArrayList<Hotel>();
+        UUID cursor = null;
+        var pages = 0;
+        do {
+            val after = cursor;
+            val page = restTestClient.get()
+                    .uri(builder -> builder.path(HOTEL_BASE_ENDPOINT + "/page")
+                            .queryParam("limit", 2)
+                            .queryParamIfPresent("after", Optional.ofNullable(after))
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(typeReference)
+                    .returnResult()
+                    .getResponseBody();
+
+            assertNotNull(page);
+            hotels.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(4, hotels.size());
+        assertEquals(2, pages);
+        assertNull(cursor);
+    }
+
+    @Test
+    @Order(4)
+    void bulkInsertHotelsFromJsonArray_success() {
+
+        val hotels = List.of(
+                new Hotel("Bulk Hotel A", "Bulk Location A", 3.0),
+                new Hotel("Bulk Hotel B", "Bulk Location B", 4.0),
+                new Hotel("Bulk Hotel C", "Bulk Location C", 4.5),
+                new Hotel("Bulk Hotel D", "Bulk Location D", 5.0),
+                new Hotel("Bulk Hotel E", "Bulk Location E", 2.5)
+        );
+
+        val report = restTestClient.post()
+                .uri(HOTEL_BASE_ENDPOINT + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonMapper.writeValueAsString(hotels))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkInsertReport.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(report);
+        assertEquals(5, report.inserted());
+        assertEquals(3, report.chunks());
+    }
+
+    @Test
+    @Order(5)
+    void searchHotels_success() {
+
+        val typeReference = new ParameterizedTypeReference<@NotNull CursorPage<Hotel>>() {
+        };
+
+        val page = restTestClient.get()
+                .uri(builder -> builder.path(HOTEL_BASE_ENDPOINT + "/search")
+                        .queryParam("location", "Location A")
+                        .queryParam("minRating", 4.0)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(typeReference)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(page);
+        assertEquals(List.of(new Hotel("Hotel A", "Location A", 4.5)), page.items());
+        assertNull(page.nextCursor());
+    }
 }
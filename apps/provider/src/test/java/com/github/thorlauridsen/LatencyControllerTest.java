@@ -0,0 +1,167 @@
+package com.github.thorlauridsen;
+
+import com.github.thorlauridsen.config.LatencyProfile;
+import java.time.Duration;
+import lombok.val;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.client.RestTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import tools.jackson.databind.json.JsonMapper;
+
+import static com.github.thorlauridsen.controller.BaseEndpoint.HOTEL_BASE_ENDPOINT;
+import static com.github.thorlauridsen.controller.BaseEndpoint.LATENCY_BASE_ENDPOINT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for testing the LatencyController.
+ * A local Docker instance is required to run the tests as Testcontainers is used.
+ */
+@ActiveProfiles("postgres")
+@AutoConfigureRestTestClient
+@SpringBootTest
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LatencyControllerTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:18");
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    @Order(1)
+    void getDefaultProfile_success() {
+
+        val profile = restTestClient.get()
+                .uri(LATENCY_BASE_ENDPOINT + "/hotels")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(LatencyProfile.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(profile);
+        assertEquals(LatencyProfile.Distribution.FIXED, profile.distribution());
+        assertEquals(Duration.ofMillis(2000), profile.delay());
+    }
+
+    @Test
+    @Order(2)
+    void putProfileWithErrorRate_failsRequests() {
+
+        val profile = new LatencyProfile(
+                LatencyProfile.Distribution.UNIFORM,
+                null,
+                Duration.ofMillis(10),
+                Duration.ofMillis(20),
+                0,
+                null,
+                null,
+                1.0,
+                null,
+                0
+        );
+        val json = jsonMapper.writeValueAsString(profile);
+
+        restTestClient.put()
+                .uri(LATENCY_BASE_ENDPOINT + "/hotels")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json)
+                .exchange()
+                .expectStatus().isOk();
+
+        restTestClient.get()
+                .uri(HOTEL_BASE_ENDPOINT)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(503);
+    }
+
+    @Test
+    @Order(3)
+    void putProfileWithInvalidErrorRate_badRequest() {
+
+        val json = """
+                {"distribution": "FIXED", "delay": "PT0S", "errorRate": 2.0}
+                """;
+
+        restTestClient.put()
+                .uri(LATENCY_BASE_ENDPOINT + "/hotels")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @Order(4)
+    void putProfileWithDrip_slowsResponse() {
+
+        val json = """
+                {"distribution": "FIXED", "delay": "PT0S", "drip": "PT0.5S", "dripChunks": 5}
+                """;
+
+        restTestClient.put()
+                .uri(LATENCY_BASE_ENDPOINT + "/hotels")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json)
+                .exchange()
+                .expectStatus().isOk();
+
+        val start = System.nanoTime();
+        val result = restTestClient.get()
+                .uri(HOTEL_BASE_ENDPOINT)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .returnResult();
+        val elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(elapsed.compareTo(Duration.ofMillis(400)) >= 0, "Response was not dripped: " + elapsed);
+        assertNotNull(result.getResponseBody());
+        assertTrue(result.getResponseBody().length > 0);
+        assertEquals(result.getResponseBody().length, result.getResponseHeaders().getContentLength());
+    }
+
+    @Test
+    @Order(5)
+    void deleteProfile_resetsToDefault() {
+
+        restTestClient.delete()
+                .uri(LATENCY_BASE_ENDPOINT + "/hotels")
+                .exchange()
+                .expectStatus().isNoContent();
+
+        val profile = restTestClient.get()
+                .uri(LATENCY_BASE_ENDPOINT + "/hotels")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(LatencyProfile.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(profile);
+        assertEquals(Duration.ofMillis(2000), profile.delay());
+    }
+}
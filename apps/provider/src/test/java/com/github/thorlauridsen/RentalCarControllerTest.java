@@ -1,7 +1,11 @@
 package com.github.thorlauridsen;
 
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.RentalCar;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.MethodOrderer;
@@ -24,6 +28,7 @@ import tools.jackson.databind.json.JsonMapper;
 import static com.github.thorlauridsen.controller.BaseEndpoint.RENTAL_CAR_BASE_ENDPOINT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * Test class for testing the RentalCarController.
@@ -88,4 +93,63 @@ class RentalCarControllerTest {
         assertEquals(rentalCar.company(), saved.company());
         assertEquals(rentalCar.location(), saved.location());
     }
+
+    @Test
+    @Order(3)
+    void getPagesOfRentalCars_success() {
+
+        val typeReference = new ParameterizedTypeReference<@NotNull CursorPage<RentalCar>>() {
+        };
+
+        val rentalCars = new ArrayList<RentalCar>();
+        UUID cursor = null;
+        var pages = 0;
+        do {
+            val after = cursor;
+            val page = restTestClient.get()
+                    .uri(builder -> builder.path(RENTAL_CAR_BASE_ENDPOINT + "/page")
+                            .queryParam("limit", 2)
+                            .queryParamIfPresent("after", Optional.ofNullable(after))
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(typeReference)
+                    .returnResult()
+                    .getResponseBody();
+
+            assertNotNull(page);
+            rentalCars.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(4, rentalCars.size());
+        assertEquals(2, pages);
+        assertNull(cursor);
+    }
+
+    @Test
+    @Order(4)
+    void searchRentalCars_success() {
+
+        val typeReference = new ParameterizedTypeReference<@NotNull CursorPage<RentalCar>>() {
+        };
+
+        val page = restTestClient.get()
+                .uri(builder -> builder.path(RENTAL_CAR_BASE_ENDPOINT + "/search")
+                        .queryParam("location", "Location B")
+                        .queryParam("company", "Company B")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(typeReference)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(page);
+        assertEquals(List.of(new RentalCar("Company B", "Car model B", "Location B")), page.items());
+        assertNull(page.nextCursor());
+    }
 }
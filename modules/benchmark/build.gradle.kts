@@ -0,0 +1,59 @@
+import org.springframework.boot.gradle.tasks.bundling.BootJar
+import org.springframework.boot.gradle.tasks.run.BootRun
+
+plugins {
+    alias(local.plugins.jmh)
+    alias(local.plugins.lombok)
+    alias(local.plugins.springboot)
+    alias(local.plugins.spring.dependencies)
+}
+
+dependencies {
+    // The benchmark subproject measures the gateway, model and persistence subprojects
+    jmhImplementation(projects.gateway)
+    jmhImplementation(projects.model)
+    jmhImplementation(projects.persistence)
+
+    // Spring Boot dependencies
+    jmhImplementation(local.springboot.starter.jpa)
+    jmhImplementation(local.springboot.starter.restclient)
+
+    // H2 database dependency for an in-memory database
+    jmhRuntimeOnly(local.h2database)
+
+    // PostgreSQL database driver for running the insert benchmark against a live database
+    jmhRuntimeOnly(local.postgres)
+}
+
+// Run the benchmarks with: ./gradlew :benchmark:jmh
+// A subset can be selected with: ./gradlew :benchmark:jmh -Pjmh.includes=GatewayBenchmark
+// Results are written to build/results/jmh/results.json
+jmh {
+    jmhVersion = local.versions.jmh.get()
+    resultFormat = "JSON"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    (findProperty("jmh.includes") as String?)?.let { includes.add(it) }
+    (findProperty("jmh.profilers") as String?)?.let { profilers.add(it) }
+    // The database of the insert benchmark, for example: -Pjmh.jdbcUrl=jdbc:postgresql://localhost:5432/sample-db
+    listOf("jdbcUrl", "jdbcUser", "jdbcPassword").forEach { name ->
+        (findProperty("jmh.$name") as String?)?.let { jvmArgsAppend.add("-Dbenchmark.$name=$it") }
+    }
+    // The gateway is compiled with preview features for Structured Concurrency
+    jvmArgsAppend.add("--enable-preview")
+}
+
+// Enable preview features for Structured Concurrency
+tasks.withType<JavaCompile>().configureEach {
+    options.compilerArgs.addAll(listOf("--enable-preview", "-Xlint:preview"))
+}
+
+// Disabling bootJar and bootRun is necessary for a subproject/module
+// that uses the Spring Boot plugin but is not supposed to be executable.
+tasks.named<BootJar>("bootJar") {
+    enabled = false
+}
+tasks.named<BootRun>("bootRun") {
+    enabled = false
+}
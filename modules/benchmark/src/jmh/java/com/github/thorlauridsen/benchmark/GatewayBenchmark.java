@@ -0,0 +1,156 @@
+package com.github.thorlauridsen.benchmark;
+
+import com.github.thorlauridsen.GatewayApplication;
+import com.github.thorlauridsen.model.Flight;
+import com.github.thorlauridsen.model.Hotel;
+import com.github.thorlauridsen.model.LegStatus;
+import com.github.thorlauridsen.model.RentalCar;
+import com.github.thorlauridsen.model.TravelAge;
+import com.github.thorlauridsen.model.TravelDetails;
+import com.github.thorlauridsen.model.TravelStatus;
+import com.github.thorlauridsen.service.InterruptibleSupplier;
+import com.github.thorlauridsen.service.TravelService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Benchmarks for the strategies of fanning out the three requests for travel details.
+ * <p>
+ * The gateway application context is started against a {@link StubProvider}
+ * with a configurable latency and payload size. The response cache and
+ * hedged requests are disabled, so every invocation reaches the stub provider.
+ * The concurrency limiter is disabled as well, so benchmarks with many threads
+ * measure the fan-out instead of requests rejected by the limiter.
+ * <p>
+ * Every strategy fetches each leg through the same pipeline as {@link TravelService#getAsync()},
+ * which includes the metrics, circuit breaker, request collapsing and streaming decode.
+ * Only the way the three legs are fanned out differs between the strategies:
+ * - {@link TravelService#getFlights()} and the other legs are executed one at a time.
+ * - {@link TravelService#getAsync()} executes the legs with Structured Concurrency.
+ * - A fixed pool of platform threads executes the legs concurrently.
+ * - {@link CompletableFuture} executes the legs concurrently on the common pool.
+ * <p>
+ * Run the benchmarks with multiple threads to measure the strategies under
+ * contention, for example with: ./gradlew :benchmark:jmh -Pjmh.includes=GatewayBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GatewayBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 32;
+
+    @Param({"10", "100"})
+    private long latencyMs;
+
+    @Param({"10", "1000"})
+    private int payloadSize;
+
+    private StubProvider stubProvider;
+    private ConfigurableApplicationContext context;
+    private TravelService travelService;
+    private ExecutorService platformExecutor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        stubProvider = new StubProvider(Duration.ofMillis(latencyMs), payloadSize, JsonMapper.builder().build());
+        context = new SpringApplicationBuilder(GatewayApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "gateway.settings.targetUrl=" + stubProvider.url(),
+                        "gateway.settings.timeout=30s",
+                        "gateway.settings.hedge.enabled=false",
+                        "gateway.settings.cache.enabled=false",
+                        "gateway.settings.limiter.enabled=false",
+                        "logging.level.com.github.thorlauridsen=WARN"
+                )
+                .run();
+        travelService = context.getBean(TravelService.class);
+        platformExecutor = Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platformExecutor.close();
+        context.close();
+        stubProvider.close();
+    }
+
+    @Benchmark
+    public TravelDetails sync() throws InterruptedException {
+        return travelDetails(travelService.getFlights(), travelService.getHotels(), travelService.getRentalCars());
+    }
+
+    @Benchmark
+    public TravelDetails structuredConcurrency() throws InterruptedException {
+        return travelService.getAsync();
+    }
+
+    @Benchmark
+    public TravelDetails platformThreads() throws InterruptedException, ExecutionException {
+        val flights = platformExecutor.submit(travelService::getFlights);
+        val hotels = platformExecutor.submit(travelService::getHotels);
+        val rentalCars = platformExecutor.submit(travelService::getRentalCars);
+        return travelDetails(flights.get(), hotels.get(), rentalCars.get());
+    }
+
+    @Benchmark
+    public TravelDetails completableFuture() {
+        val flights = CompletableFuture.supplyAsync(unchecked(travelService::getFlights));
+        val hotels = CompletableFuture.supplyAsync(unchecked(travelService::getHotels));
+        val rentalCars = CompletableFuture.supplyAsync(unchecked(travelService::getRentalCars));
+        return CompletableFuture.allOf(flights, hotels, rentalCars)
+                .thenApply(done -> travelDetails(flights.join(), hotels.join(), rentalCars.join()))
+                .join();
+    }
+
+    /**
+     * Adapt a leg of the {@link TravelService} to a {@link Supplier} for {@link CompletableFuture}.
+     *
+     * @param leg Fetches a leg of the travel details.
+     * @param <T> The type of the elements in the list.
+     * @return {@link Supplier} which wraps an interrupt in a {@link CompletionException}.
+     */
+    private static <T> Supplier<List<T>> unchecked(InterruptibleSupplier<List<T>> leg) {
+        return () -> {
+            try {
+                return leg.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        };
+    }
+
+    private static TravelDetails travelDetails(List<Flight> flights, List<Hotel> hotels, List<RentalCar> rentalCars) {
+        return new TravelDetails(
+                flights,
+                hotels,
+                rentalCars,
+                new TravelStatus(LegStatus.SUCCESS, LegStatus.SUCCESS, LegStatus.SUCCESS),
+                TravelAge.FRESH
+        );
+    }
+}
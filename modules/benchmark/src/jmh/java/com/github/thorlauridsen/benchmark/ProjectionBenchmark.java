@@ -0,0 +1,106 @@
+package com.github.thorlauridsen.benchmark;
+
+import com.github.thorlauridsen.model.Flight;
+import com.github.thorlauridsen.persistence.FlightEntity;
+import com.github.thorlauridsen.persistence.FlightJpaRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+/**
+ * Benchmarks for reading all flights as managed entities versus projecting them into the model.
+ * <p>
+ * The entity benchmark loads every {@link FlightEntity} into the persistence context and copies it
+ * into a {@link Flight}, which is how the repository read path worked before projections.
+ * The projection benchmark uses {@link FlightJpaRepo#findAllProjected()}.
+ * <p>
+ * Run the benchmarks with the GC profiler to see the difference in allocation, for example with:
+ * ./gradlew :benchmark:jmh -Pjmh.includes=ProjectionBenchmark -Pjmh.profilers=gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ProjectionBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private FlightJpaRepo flightJpaRepo;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        entityManagerFactory = new PersistenceConfiguration("benchmark")
+                .managedClass(FlightEntity.class)
+                .property(PersistenceConfiguration.JDBC_URL, "jdbc:h2:mem:benchmark-" + rows + ";DB_CLOSE_DELAY=-1")
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                .createEntityManagerFactory();
+        entityManager = entityManagerFactory.createEntityManager();
+        flightJpaRepo = new JpaRepositoryFactory(entityManager).getRepository(FlightJpaRepo.class);
+
+        val flights = IntStream.range(0, rows)
+                .mapToObj(i -> new FlightEntity("AB" + i, "Airline " + i, "Origin " + i, "Destination " + i))
+                .toList();
+        inTransaction(() -> flightJpaRepo.saveAll(flights));
+        entityManager.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public List<Flight> entities() {
+        return inTransaction(() -> flightJpaRepo.findAll().stream()
+                .map(entity -> new Flight(
+                        entity.getFlightNumber(),
+                        entity.getAirline(),
+                        entity.getOrigin(),
+                        entity.getDestination()
+                ))
+                .toList());
+    }
+
+    @Benchmark
+    public List<Flight> projection() {
+        return inTransaction(flightJpaRepo::findAllProjected);
+    }
+
+    /**
+     * Execute a query in a transaction and clear the persistence context afterwards,
+     * so every invocation starts with an empty persistence context as in a request.
+     *
+     * @param query The query to execute.
+     * @param <T>   The result type of the query.
+     * @return The result of the query.
+     */
+    private <T> T inTransaction(Supplier<T> query) {
+        val transaction = entityManager.getTransaction();
+        transaction.begin();
+        try {
+            return query.get();
+        } finally {
+            transaction.commit();
+            entityManager.clear();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.thorlauridsen.benchmark;
+
+import com.github.thorlauridsen.persistence.FlightEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.UUID;
+import lombok.NoArgsConstructor;
+
+/**
+ * Copy of {@link FlightEntity} with a random UUID version 4 id,
+ * which is how the ids of the entities were generated before UUID version 7.
+ * It is only used to compare the two kinds of ids in {@link UuidInsertBenchmark}.
+ */
+@Entity
+@NoArgsConstructor
+@Table(name = "random_id_flight")
+public class RandomIdFlightEntity {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private String flightNumber;
+
+    @Column(nullable = false)
+    private String airline;
+
+    @Column(nullable = false)
+    private String origin;
+
+    @Column(nullable = false)
+    private String destination;
+
+    /**
+     * Constructor for flight.
+     *
+     * @param flightNumber Flight number.
+     * @param airline      Airline of the flight.
+     * @param origin       Origin airport.
+     * @param destination  Destination airport.
+     */
+    public RandomIdFlightEntity(String flightNumber, String airline, String origin, String destination) {
+        this.flightNumber = flightNumber;
+        this.airline = airline;
+        this.origin = origin;
+        this.destination = destination;
+    }
+}
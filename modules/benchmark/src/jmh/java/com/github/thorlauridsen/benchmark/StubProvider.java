@@ -0,0 +1,91 @@
+package com.github.thorlauridsen.benchmark;
+
+import com.github.thorlauridsen.model.Flight;
+import com.github.thorlauridsen.model.Hotel;
+import com.github.thorlauridsen.model.RentalCar;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import lombok.val;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * In-process stub of the provider subproject for benchmarks.
+ * <p>
+ * It serves /flights, /hotels and /rentalcars with a fixed latency and payload size,
+ * so the benchmarks measure the gateway instead of the database of the provider.
+ * The response bodies are serialized once up front and requests are
+ * handled on virtual threads, so the stub itself is never the bottleneck.
+ */
+public class StubProvider implements AutoCloseable {
+
+    private final HttpServer server;
+
+    /**
+     * Start a stub provider on an ephemeral port.
+     *
+     * @param latency     Delay before each response is sent.
+     * @param payloadSize Number of elements in each response.
+     * @param jsonMapper  {@link JsonMapper} for serializing the response bodies.
+     * @throws IOException If the server could not be started.
+     */
+    public StubProvider(Duration latency, int payloadSize, JsonMapper jsonMapper) throws IOException {
+        val flights = IntStream.range(0, payloadSize)
+                .mapToObj(i -> new Flight("AB" + i, "Airline " + i, "Origin " + i, "Destination " + i))
+                .toList();
+        val hotels = IntStream.range(0, payloadSize)
+                .mapToObj(i -> new Hotel("Hotel " + i, "Location " + i, 4.0))
+                .toList();
+        val rentalCars = IntStream.range(0, payloadSize)
+                .mapToObj(i -> new RentalCar("Company " + i, "Car model " + i, "Location " + i))
+                .toList();
+
+        val flightsBody = jsonMapper.writeValueAsBytes(flights);
+        val hotelsBody = jsonMapper.writeValueAsBytes(hotels);
+        val rentalCarsBody = jsonMapper.writeValueAsBytes(rentalCars);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/flights", exchange -> respond(exchange, latency, flightsBody));
+        server.createContext("/hotels", exchange -> respond(exchange, latency, hotelsBody));
+        server.createContext("/rentalcars", exchange -> respond(exchange, latency, rentalCarsBody));
+        server.start();
+    }
+
+    /**
+     * Get the URL of the stub provider.
+     *
+     * @return URL which can be used as the target URL of the gateway.
+     */
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    /**
+     * Send a JSON response after the configured latency.
+     *
+     * @param exchange The exchange to respond to.
+     * @param latency  Delay before the response is sent.
+     * @param body     Serialized response body.
+     * @throws IOException If the response could not be written.
+     */
+    private static void respond(HttpExchange exchange, Duration latency, byte[] body) throws IOException {
+        try (exchange) {
+            Thread.sleep(latency);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
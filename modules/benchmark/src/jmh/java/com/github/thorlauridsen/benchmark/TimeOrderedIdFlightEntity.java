@@ -0,0 +1,52 @@
+package com.github.thorlauridsen.benchmark;
+
+import com.github.thorlauridsen.persistence.FlightEntity;
+import com.github.thorlauridsen.persistence.UuidV7;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.UUID;
+import lombok.NoArgsConstructor;
+
+/**
+ * Copy of {@link FlightEntity} with a time-ordered {@link UuidV7} id in a table of its own,
+ * so the benchmark never creates or drops the flight table of the provider.
+ * It is only used to compare the two kinds of ids in {@link UuidInsertBenchmark}.
+ */
+@Entity
+@NoArgsConstructor
+@Table(name = "time_ordered_id_flight")
+public class TimeOrderedIdFlightEntity {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(nullable = false)
+    private String flightNumber;
+
+    @Column(nullable = false)
+    private String airline;
+
+    @Column(nullable = false)
+    private String origin;
+
+    @Column(nullable = false)
+    private String destination;
+
+    /**
+     * Constructor for flight.
+     *
+     * @param flightNumber Flight number.
+     * @param airline      Airline of the flight.
+     * @param origin       Origin airport.
+     * @param destination  Destination airport.
+     */
+    public TimeOrderedIdFlightEntity(String flightNumber, String airline, String origin, String destination) {
+        this.flightNumber = flightNumber;
+        this.airline = airline;
+        this.origin = origin;
+        this.destination = destination;
+    }
+}
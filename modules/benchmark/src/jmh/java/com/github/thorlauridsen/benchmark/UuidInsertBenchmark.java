@@ -0,0 +1,153 @@
+package com.github.thorlauridsen.benchmark;
+
+import com.github.thorlauridsen.persistence.UuidV7;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark of inserting flights with random UUID version 4 ids versus time-ordered {@link UuidV7} ids.
+ * <p>
+ * Each invocation inserts a batch of flights in a single transaction with JDBC batching,
+ * like a chunk of a bulk insert, and the table keeps growing for the whole trial.
+ * The random ids use {@link RandomIdFlightEntity}, and the time-ordered ids use {@link TimeOrderedIdFlightEntity}.
+ * Both have tables of their own, which are dropped and created for each trial,
+ * so the flight table of the provider is left untouched when the benchmark runs against its database.
+ * <p>
+ * The benchmark runs against an in-memory H2 database by default. The primary key index is where
+ * random ids hurt the most on PostgreSQL, so the database can be changed with system properties:
+ * ./gradlew :benchmark:jmh -Pjmh.includes=UuidInsertBenchmark
+ * -Pjmh.jdbcUrl=jdbc:postgresql://localhost:5432/sample-db -Pjmh.jdbcUser=postgres -Pjmh.jdbcPassword=postgres
+ * <p>
+ * The number of rows in the table is reported as the rows counter of each iteration with {@link IndexCounters}.
+ * On PostgreSQL, the size of the primary key index is also reported as the indexBytes counter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class UuidInsertBenchmark {
+
+    private static final String RANDOM = "random";
+    private static final String TIME_ORDERED = "timeOrdered";
+
+    @Param({RANDOM, TIME_ORDERED})
+    private String ids;
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private String jdbcUrl;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private long inserted;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jdbcUrl = System.getProperty("benchmark.jdbcUrl", "jdbc:h2:mem:uuid-" + ids + ";DB_CLOSE_DELAY=-1");
+        entityManagerFactory = new PersistenceConfiguration("benchmark")
+                .managedClass(TimeOrderedIdFlightEntity.class)
+                .managedClass(RandomIdFlightEntity.class)
+                .property(PersistenceConfiguration.JDBC_URL, jdbcUrl)
+                .property(PersistenceConfiguration.JDBC_USER, System.getProperty("benchmark.jdbcUser", "sa"))
+                .property(PersistenceConfiguration.JDBC_PASSWORD, System.getProperty("benchmark.jdbcPassword", ""))
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                .property("hibernate.jdbc.batch_size", batchSize)
+                .property("hibernate.order_inserts", true)
+                .createEntityManagerFactory();
+        entityManager = entityManagerFactory.createEntityManager();
+    }
+
+    /**
+     * Record the size of the primary key index at the end of each iteration.
+     *
+     * @param counters {@link IndexCounters} reported by JMH for the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void measureIndex(IndexCounters counters) {
+        if (jdbcUrl.startsWith("jdbc:postgresql:")) {
+            counters.indexBytes = indexSize();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public long insert(IndexCounters counters) {
+        val transaction = entityManager.getTransaction();
+        transaction.begin();
+        for (var i = 0; i < batchSize; i++) {
+            entityManager.persist(newFlight(inserted++));
+        }
+        transaction.commit();
+        entityManager.clear();
+        counters.rows = inserted;
+        return inserted;
+    }
+
+    /**
+     * Create a flight with the kind of id given by the parameter of the benchmark.
+     *
+     * @param number Number of the flight, used to make each flight unique.
+     * @return Entity to insert.
+     */
+    private Object newFlight(long number) {
+        return switch (ids) {
+            case RANDOM -> new RandomIdFlightEntity("AB" + number, "Airline", "Origin", "Destination");
+            case TIME_ORDERED -> new TimeOrderedIdFlightEntity("AB" + number, "Airline", "Origin", "Destination");
+            default -> throw new IllegalArgumentException("Unknown ids: " + ids);
+        };
+    }
+
+    /**
+     * Look up the size of the primary key index of the table on PostgreSQL.
+     *
+     * @return Size of the primary key index in bytes.
+     */
+    private long indexSize() {
+        val table = RANDOM.equals(ids) ? "random_id_flight" : "time_ordered_id_flight";
+        val bytes = (Number) entityManager.createNativeQuery("""
+                        select pg_relation_size(i.indexrelid)
+                        from pg_index i
+                        where i.indrelid = cast(:table as regclass) and i.indisprimary
+                        """)
+                .setParameter("table", table)
+                .getSingleResult();
+        return bytes.longValue();
+    }
+
+    /**
+     * Counters reported by JMH next to the throughput of each iteration.
+     * They are events, so JMH reports the values as they are at the end of the iteration.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class IndexCounters {
+
+        /**
+         * Number of rows in the table.
+         */
+        public long rows;
+
+        /**
+         * Size of the primary key index in bytes, only measured on PostgreSQL.
+         */
+        public long indexBytes;
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.thorlauridsen.model;
+
+/**
+ * Model record representing the result of a bulk insert.
+ *
+ * @param inserted      Number of inserted rows.
+ * @param chunks        Number of chunks the rows were committed in.
+ * @param durationMs    Duration in milliseconds of the bulk insert.
+ * @param rowsPerSecond Throughput of the bulk insert in rows per second.
+ */
+public record BulkInsertReport(
+        long inserted,
+        int chunks,
+        long durationMs,
+        double rowsPerSecond
+) {
+}
@@ -0,0 +1,20 @@
+package com.github.thorlauridsen.model;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Model record representing a page of elements retrieved with keyset pagination.
+ * The next page is retrieved by passing the cursor of this page as the
+ * starting point, so the cost of retrieving a page does not grow with
+ * the number of pages which have already been retrieved.
+ *
+ * @param items      List of elements on this page.
+ * @param nextCursor Cursor for retrieving the next page, or null if this is the last page.
+ * @param <T>        The type of the elements.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        UUID nextCursor
+) {
+}
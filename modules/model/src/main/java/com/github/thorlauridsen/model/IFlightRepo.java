@@ -1,6 +1,7 @@
 package com.github.thorlauridsen.model;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Flight repository interface.
@@ -17,9 +18,42 @@ public interface IFlightRepo {
      */
     Flight save(Flight flight);
 
+    /**
+     * Save a chunk of flights to the database in a single transaction.
+     * @param flights List of Flight to save.
+     * @return Number of saved flights.
+     */
+    int saveAll(List<Flight> flights);
+
     /**
      * Get all flights from the database.
      * @return List of Flight
      */
     List<Flight> findAll();
+
+    /**
+     * Get a page of flights from the database using keyset pagination.
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of flights on the page.
+     * @return CursorPage of Flight
+     */
+    CursorPage<Flight> findPage(UUID after, int limit);
+
+    /**
+     * Search flights in the database by the given criteria using keyset pagination.
+     * Criteria which are null are ignored.
+     * @param origin Origin of the flights, or null to match any origin.
+     * @param destination Destination of the flights, or null to match any destination.
+     * @param airline Airline of the flights, or null to match any airline.
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of flights on the page.
+     * @return CursorPage of Flight ordered by id
+     */
+    CursorPage<Flight> search(String origin, String destination, String airline, UUID after, int limit);
+
+    /**
+     * Get the version of the flight table, which changes every time flights are saved.
+     * @return TableVersion of the flight table.
+     */
+    TableVersion version();
 }
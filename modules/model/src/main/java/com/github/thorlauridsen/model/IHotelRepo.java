@@ -1,6 +1,7 @@
 package com.github.thorlauridsen.model;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Hotel repository interface.
@@ -17,9 +18,41 @@ public interface IHotelRepo {
      */
     Hotel save(Hotel hotel);
 
+    /**
+     * Save a chunk of hotels to the database in a single transaction.
+     * @param hotels List of Hotel to save.
+     * @return Number of saved hotels.
+     */
+    int saveAll(List<Hotel> hotels);
+
     /**
      * Get all hotels from the database.
      * @return List of Hotel
      */
     List<Hotel> findAll();
+
+    /**
+     * Get a page of hotels from the database using keyset pagination.
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of hotels on the page.
+     * @return CursorPage of Hotel
+     */
+    CursorPage<Hotel> findPage(UUID after, int limit);
+
+    /**
+     * Search hotels in the database by the given criteria using keyset pagination.
+     * Criteria which are null are ignored.
+     * @param location Location of the hotels, or null to match any location.
+     * @param minRating Minimum rating of the hotels, or null to match any rating.
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of hotels on the page.
+     * @return CursorPage of Hotel ordered by id
+     */
+    CursorPage<Hotel> search(String location, Double minRating, UUID after, int limit);
+
+    /**
+     * Get the version of the hotel table, which changes every time hotels are saved.
+     * @return TableVersion of the hotel table.
+     */
+    TableVersion version();
 }
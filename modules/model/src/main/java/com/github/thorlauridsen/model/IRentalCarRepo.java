@@ -1,6 +1,7 @@
 package com.github.thorlauridsen.model;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Rental car repository interface.
@@ -17,9 +18,41 @@ public interface IRentalCarRepo {
      */
     RentalCar save(RentalCar rentalCar);
 
+    /**
+     * Save a chunk of rental cars to the database in a single transaction.
+     * @param rentalCars List of RentalCar to save.
+     * @return Number of saved rental cars.
+     */
+    int saveAll(List<RentalCar> rentalCars);
+
     /**
      * Get all rental cars from the database.
      * @return List of RentalCar
      */
     List<RentalCar> findAll();
+
+    /**
+     * Get a page of rental cars from the database using keyset pagination.
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of rental cars on the page.
+     * @return CursorPage of RentalCar
+     */
+    CursorPage<RentalCar> findPage(UUID after, int limit);
+
+    /**
+     * Search rental cars in the database by the given criteria using keyset pagination.
+     * Criteria which are null are ignored.
+     * @param location Location of the rental cars, or null to match any location.
+     * @param company Company of the rental cars, or null to match any company.
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of rental cars on the page.
+     * @return CursorPage of RentalCar ordered by id
+     */
+    CursorPage<RentalCar> search(String location, String company, UUID after, int limit);
+
+    /**
+     * Get the version of the rental car table, which changes every time rental cars are saved.
+     * @return TableVersion of the rental car table.
+     */
+    TableVersion version();
 }
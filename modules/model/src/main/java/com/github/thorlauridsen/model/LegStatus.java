@@ -0,0 +1,30 @@
+package com.github.thorlauridsen.model;
+
+/**
+ * Enum representing the outcome of fetching a single leg of the travel details.
+ * A leg is one of flights, hotels or rental cars.
+ */
+public enum LegStatus {
+
+    /**
+     * The leg was fetched successfully.
+     */
+    SUCCESS,
+
+    /**
+     * The leg did not complete before the deadline and was cancelled.
+     */
+    TIMED_OUT,
+
+    /**
+     * The leg could not be fetched, or was skipped because its circuit is open,
+     * and the last successfully fetched list of the leg was returned instead.
+     */
+    STALE,
+
+    /**
+     * The leg could not be fetched, or was skipped because its circuit is open,
+     * and no previously fetched list of the leg was available.
+     */
+    DEGRADED
+}
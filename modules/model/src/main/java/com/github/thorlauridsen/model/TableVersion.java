@@ -0,0 +1,17 @@
+package com.github.thorlauridsen.model;
+
+import java.time.Instant;
+
+/**
+ * Model record representing the version of the rows in a table.
+ * The version changes every time rows are written to the table,
+ * so it can be used to validate a previously fetched response with a conditional request.
+ *
+ * @param etag         Entity tag of the rows including the surrounding quotes.
+ * @param lastModified Time the rows were last written, or the time the version was first created.
+ */
+public record TableVersion(
+        String etag,
+        Instant lastModified
+) {
+}
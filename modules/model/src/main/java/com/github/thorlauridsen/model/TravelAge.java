@@ -0,0 +1,23 @@
+package com.github.thorlauridsen.model;
+
+/**
+ * Model record representing the age of each leg of the travel details.
+ * A leg has an age if it is {@link LegStatus#STALE}, which means it was served
+ * from the last successfully fetched list because the leg could not be fetched.
+ * The age of a fresh leg is null.
+ *
+ * @param flightsMs    Age in milliseconds of the flights leg.
+ * @param hotelsMs     Age in milliseconds of the hotels leg.
+ * @param rentalCarsMs Age in milliseconds of the rental cars leg.
+ */
+public record TravelAge(
+        Long flightsMs,
+        Long hotelsMs,
+        Long rentalCarsMs
+) {
+
+    /**
+     * Age of travel details where every leg is fresh.
+     */
+    public static final TravelAge FRESH = new TravelAge(null, null, null);
+}
@@ -0,0 +1,19 @@
+package com.github.thorlauridsen.model;
+
+import java.util.List;
+
+/**
+ * Model record representing all travel options returned by the provider in a single response.
+ * The provider fetches the lists concurrently, so the gateway can retrieve
+ * every leg of the travel details with a single request.
+ *
+ * @param flights    List of flights.
+ * @param hotels     List of hotels.
+ * @param rentalCars List of rental cars.
+ */
+public record TravelAggregate(
+        List<Flight> flights,
+        List<Hotel> hotels,
+        List<RentalCar> rentalCars
+) {
+}
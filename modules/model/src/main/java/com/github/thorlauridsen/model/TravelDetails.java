@@ -4,14 +4,21 @@ import java.util.List;
 
 /**
  * Model record representing the details of travel options.
+ * A leg which did not complete in time, or could not be fetched, is returned
+ * as an empty list or as a previously fetched list, and can be identified
+ * through the given {@link TravelStatus} and {@link TravelAge}.
  *
  * @param flights    List of flights.
  * @param hotels     List of hotels.
  * @param rentalCars List of rental cars.
+ * @param status     Status of each leg.
+ * @param age        Age of each leg which was served from a previously fetched list.
  */
 public record TravelDetails(
         List<Flight> flights,
         List<Hotel> hotels,
-        List<RentalCar> rentalCars
+        List<RentalCar> rentalCars,
+        TravelStatus status,
+        TravelAge age
 ) {
 }
@@ -0,0 +1,28 @@
+package com.github.thorlauridsen.model;
+
+/**
+ * Model record representing the filters of a travel search.
+ * Every filter is optional, and a null filter matches every travel option.
+ * The location filter applies to both hotels and rental cars.
+ *
+ * @param origin      Origin of the flights.
+ * @param destination Destination of the flights.
+ * @param airline     Airline of the flights.
+ * @param location    Location of the hotels and rental cars.
+ * @param minRating   Minimum rating of the hotels.
+ * @param company     Company of the rental cars.
+ */
+public record TravelSearch(
+        String origin,
+        String destination,
+        String airline,
+        String location,
+        Double minRating,
+        String company
+) {
+
+    /**
+     * Search without filters, which matches every travel option.
+     */
+    public static final TravelSearch ANY = new TravelSearch(null, null, null, null, null, null);
+}
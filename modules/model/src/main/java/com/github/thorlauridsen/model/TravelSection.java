@@ -0,0 +1,23 @@
+package com.github.thorlauridsen.model;
+
+import java.util.List;
+
+/**
+ * Model record representing a single section of the travel details.
+ * A section holds the result of a single leg and is used when
+ * the travel details are streamed one section at a time.
+ *
+ * @param name       Name of the section, for example flights.
+ * @param status     Status of the leg.
+ * @param durationMs Duration in milliseconds it took to fetch the leg.
+ * @param ageMs      Age in milliseconds of the items if the leg is {@link LegStatus#STALE}, otherwise null.
+ * @param items      List of fetched elements, empty if the leg did not complete.
+ */
+public record TravelSection(
+        String name,
+        LegStatus status,
+        long durationMs,
+        Long ageMs,
+        List<?> items
+) {
+}
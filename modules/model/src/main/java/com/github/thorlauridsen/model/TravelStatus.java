@@ -0,0 +1,15 @@
+package com.github.thorlauridsen.model;
+
+/**
+ * Model record representing the status of each leg of the travel details.
+ *
+ * @param flights    Status of the flights leg.
+ * @param hotels     Status of the hotels leg.
+ * @param rentalCars Status of the rental cars leg.
+ */
+public record TravelStatus(
+        LegStatus flights,
+        LegStatus hotels,
+        LegStatus rentalCars
+) {
+}
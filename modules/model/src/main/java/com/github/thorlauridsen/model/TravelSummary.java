@@ -0,0 +1,14 @@
+package com.github.thorlauridsen.model;
+
+/**
+ * Model record representing the summary of streamed travel details.
+ * This is sent after all sections of the travel details have been sent.
+ *
+ * @param status     Status of each leg.
+ * @param durationMs Duration in milliseconds it took to fetch all legs.
+ */
+public record TravelSummary(
+        TravelStatus status,
+        long durationMs
+) {
+}
@@ -1,18 +1,26 @@
 package com.github.thorlauridsen.persistence;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Flight entity class.
  * Represents a flight with number, airline, origin, and destination.
+ * <p>
+ * The entity is cached in the second-level cache when it is enabled.
+ * Nonstrict read-write is used as flights are inserted but never updated, so an inserted
+ * flight is not put in the cache until it is read, which keeps bulk inserts cheap.
  */
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Entity
 @Getter
 @NoArgsConstructor
@@ -20,7 +28,7 @@ import lombok.NoArgsConstructor;
 public class FlightEntity {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -1,12 +1,51 @@
 package com.github.thorlauridsen.persistence;
 
+import com.github.thorlauridsen.model.Flight;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * Flight repository interface.
  * This is a JPA repository for the {@link FlightEntity}.
  * It extends the {@link JpaRepository} interface which allows us to easily define CRUD methods.
+ * The read queries are marked as cacheable, so their results are served from
+ * the query cache when the second-level cache is enabled.
  */
 public interface FlightJpaRepo extends JpaRepository<FlightEntity, UUID> {
+
+    /**
+     * Find the first flights ordered by id.
+     *
+     * @param limit Maximum number of flights to find.
+     * @return List of {@link FlightEntity}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<FlightEntity> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Find the flights with an id greater than the given id ordered by id.
+     *
+     * @param id    The id to start after.
+     * @param limit Maximum number of flights to find.
+     * @return List of {@link FlightEntity}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<FlightEntity> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Find all flights projected directly into the {@link Flight} model.
+     * The constructor expression means that no {@link FlightEntity} is instantiated,
+     * so nothing is added to the persistence context or tracked for dirty checking.
+     *
+     * @return List of {@link Flight}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.github.thorlauridsen.model.Flight(f.flightNumber, f.airline, f.origin, f.destination) from FlightEntity f")
+    List<Flight> findAllProjected();
 }
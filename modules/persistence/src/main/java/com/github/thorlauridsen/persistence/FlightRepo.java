@@ -1,12 +1,21 @@
 package com.github.thorlauridsen.persistence;
 
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Flight;
 import com.github.thorlauridsen.model.IFlightRepo;
+import com.github.thorlauridsen.model.TableVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Flight repository facade class.
@@ -17,6 +26,10 @@ import org.springframework.stereotype.Repository;
  * <p>
  * It is annotated with {@link Repository} to allow Spring to automatically
  * detect it as a bean and inject it where needed.
+ * <p>
+ * When the query cache is enabled, every save goes through Hibernate, which records
+ * the time the table was written. Cached query results of flights from before that time
+ * are treated as stale, so a write is visible to the next read without an explicit eviction.
  */
 @Repository
 @RequiredArgsConstructor
@@ -24,6 +37,8 @@ import org.springframework.stereotype.Repository;
 public class FlightRepo implements IFlightRepo {
 
     private final FlightJpaRepo jpaRepo;
+    private final EntityManager entityManager;
+    private final VersionCounter versionCounter = new VersionCounter();
 
     /**
      * Save a flight.
@@ -45,6 +60,7 @@ public class FlightRepo implements IFlightRepo {
         val saved = jpaRepo.save(entity);
 
         log.info("Flight saved with id: {}", saved.getId());
+        versionCounter.incrementAfterCommit();
 
         return new Flight(
                 saved.getFlightNumber(),
@@ -54,17 +70,73 @@ public class FlightRepo implements IFlightRepo {
         );
     }
 
+    /**
+     * Save a chunk of flights in a single transaction.
+     * The entities are inserted with JDBC batching, so the inserts are sent to the database
+     * in batches of the configured Hibernate batch size instead of one round trip per row.
+     * The chunk is flushed and the persistence context is cleared before returning, so memory
+     * usage is bounded by the size of the chunk even if the caller shares the persistence context.
+     *
+     * @param flights List of input objects for creating flights.
+     * @return Number of saved flights.
+     */
+    @Override
+    @Transactional
+    public int saveAll(List<Flight> flights) {
+        log.info("Saving chunk of {} flights", flights.size());
+
+        val entities = flights.stream()
+                .map(flight -> new FlightEntity(
+                        flight.flightNumber(),
+                        flight.airline(),
+                        flight.origin(),
+                        flight.destination()
+                ))
+                .toList();
+        jpaRepo.saveAll(entities);
+        entityManager.flush();
+        entityManager.clear();
+        versionCounter.incrementAfterCommit();
+
+        return entities.size();
+    }
+
     /**
      * Find all flights.
-     * This method will convert the list of {@link FlightEntity} to a list of {@link Flight} models.
+     * The {@link Flight} models are projected directly by the query in a read-only transaction,
+     * so no {@link FlightEntity} is loaded into the persistence context.
      *
      * @return List of {@link Flight} model classes.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Flight> findAll() {
         log.info("Fetching all flights");
 
-        return jpaRepo.findAll().stream()
+        return jpaRepo.findAllProjected();
+    }
+
+    /**
+     * Find a page of flights using keyset pagination.
+     * The flights are ordered by id, and the page starts after the given cursor.
+     * One extra row is fetched to determine whether there is a next page.
+     *
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of flights on the page.
+     * @return {@link CursorPage} of {@link Flight} model classes.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Flight> findPage(UUID after, int limit) {
+        log.info("Fetching page of flights after: {}, limit: {}", after, limit);
+
+        val entities = after == null
+                ? jpaRepo.findAllByOrderByIdAsc(Limit.of(limit + 1))
+                : jpaRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1));
+
+        val hasNext = entities.size() > limit;
+        val page = hasNext ? entities.subList(0, limit) : entities;
+        val items = page.stream()
                 .map(entity -> new Flight(
                         entity.getFlightNumber(),
                         entity.getAirline(),
@@ -72,5 +144,90 @@ public class FlightRepo implements IFlightRepo {
                         entity.getDestination()
                 ))
                 .toList();
+
+        return new CursorPage<>(items, hasNext ? page.getLast().getId() : null);
+    }
+
+    /**
+     * Search flights by the given criteria using keyset pagination.
+     * The query is built with the criteria API so that only the given criteria are part of
+     * the where clause. This way the database can use the composite index matching the criteria,
+     * which it cannot do for a single query where each criterion may or may not be null.
+     * The columns of the {@link Flight} models are projected directly by the query in a read-only transaction.
+     * <p>
+     * The matches are ordered by id, so the result is deterministic, and one more row than the limit
+     * is fetched to know whether there is another page. The id of the last match on the page is the
+     * cursor of the next page, so a search is never silently truncated at the limit.
+     *
+     * @param origin      Origin of the flights, or null to match any origin.
+     * @param destination Destination of the flights, or null to match any destination.
+     * @param airline     Airline of the flights, or null to match any airline.
+     * @param after       Cursor of the previous page, or null to get the first page.
+     * @param limit       Maximum number of flights on the page.
+     * @return {@link CursorPage} of {@link Flight} model classes.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Flight> search(String origin, String destination, String airline, UUID after, int limit) {
+        log.info("Searching flights with origin: {}, destination: {}, airline: {}, after: {}",
+                origin, destination, airline, after);
+
+        val builder = entityManager.getCriteriaBuilder();
+        val query = builder.createTupleQuery();
+        val flight = query.from(FlightEntity.class);
+        val id = flight.<UUID>get("id");
+
+        val predicates = new ArrayList<Predicate>();
+        if (origin != null) {
+            predicates.add(builder.equal(flight.get("origin"), origin));
+        }
+        if (destination != null) {
+            predicates.add(builder.equal(flight.get("destination"), destination));
+        }
+        if (airline != null) {
+            predicates.add(builder.equal(flight.get("airline"), airline));
+        }
+        if (after != null) {
+            predicates.add(builder.greaterThan(id, after));
+        }
+
+        query.multiselect(
+                        id.alias("id"),
+                        flight.get("flightNumber").alias("flightNumber"),
+                        flight.get("airline").alias("airline"),
+                        flight.get("origin").alias("origin"),
+                        flight.get("destination").alias("destination")
+                )
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.asc(id));
+
+        val rows = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        val hasNext = rows.size() > limit;
+        val page = hasNext ? rows.subList(0, limit) : rows;
+        val items = page.stream()
+                .map(row -> new Flight(
+                        row.get("flightNumber", String.class),
+                        row.get("airline", String.class),
+                        row.get("origin", String.class),
+                        row.get("destination", String.class)
+                ))
+                .toList();
+
+        return new CursorPage<>(items, hasNext ? page.getLast().get("id", UUID.class) : null);
+    }
+
+    /**
+     * Get the version of the flight table.
+     * The version is advanced after every save through this repository has committed.
+     *
+     * @return {@link TableVersion} of the flight table.
+     */
+    @Override
+    public TableVersion version() {
+        return versionCounter.get();
     }
 }
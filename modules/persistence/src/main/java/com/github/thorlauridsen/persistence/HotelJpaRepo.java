@@ -1,12 +1,51 @@
 package com.github.thorlauridsen.persistence;
 
+import com.github.thorlauridsen.model.Hotel;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * Hotel repository interface.
  * This is a JPA repository for the {@link HotelEntity}.
  * It extends the {@link JpaRepository} interface which allows us to easily define CRUD methods.
+ * The read queries are marked as cacheable, so their results are served from
+ * the query cache when the second-level cache is enabled.
  */
 public interface HotelJpaRepo extends JpaRepository<HotelEntity, UUID> {
+
+    /**
+     * Find the first hotels ordered by id.
+     *
+     * @param limit Maximum number of hotels to find.
+     * @return List of {@link HotelEntity}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<HotelEntity> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Find the hotels with an id greater than the given id ordered by id.
+     *
+     * @param id    The id to start after.
+     * @param limit Maximum number of hotels to find.
+     * @return List of {@link HotelEntity}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<HotelEntity> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Find all hotels projected directly into the {@link Hotel} model.
+     * The constructor expression means that no {@link HotelEntity} is instantiated,
+     * so nothing is added to the persistence context or tracked for dirty checking.
+     *
+     * @return List of {@link Hotel}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.github.thorlauridsen.model.Hotel(h.name, h.location, h.rating) from HotelEntity h")
+    List<Hotel> findAllProjected();
 }
@@ -1,12 +1,21 @@
 package com.github.thorlauridsen.persistence;
 
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.Hotel;
 import com.github.thorlauridsen.model.IHotelRepo;
+import com.github.thorlauridsen.model.TableVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Hotel repository facade class.
@@ -17,6 +26,10 @@ import org.springframework.stereotype.Repository;
  * <p>
  * It is annotated with {@link Repository} to allow Spring to automatically
  * detect it as a bean and inject it where needed.
+ * <p>
+ * When the query cache is enabled, every save goes through Hibernate, which records
+ * the time the table was written. Cached query results of hotels from before that time
+ * are treated as stale, so a write is visible to the next read without an explicit eviction.
  */
 @Repository
 @RequiredArgsConstructor
@@ -24,6 +37,8 @@ import org.springframework.stereotype.Repository;
 public class HotelRepo implements IHotelRepo {
 
     private final HotelJpaRepo jpaRepo;
+    private final EntityManager entityManager;
+    private final VersionCounter versionCounter = new VersionCounter();
 
     /**
      * Save a hotel.
@@ -40,6 +55,7 @@ public class HotelRepo implements IHotelRepo {
         val saved = jpaRepo.save(entity);
 
         log.info("Hotel saved with id: {}", saved.getId());
+        versionCounter.incrementAfterCommit();
 
         return new Hotel(
                 saved.getName(),
@@ -48,22 +64,151 @@ public class HotelRepo implements IHotelRepo {
         );
     }
 
+    /**
+     * Save a chunk of hotels in a single transaction.
+     * The entities are inserted with JDBC batching, so the inserts are sent to the database
+     * in batches of the configured Hibernate batch size instead of one round trip per row.
+     * The chunk is flushed and the persistence context is cleared before returning, so memory
+     * usage is bounded by the size of the chunk even if the caller shares the persistence context.
+     *
+     * @param hotels List of input objects for creating hotels.
+     * @return Number of saved hotels.
+     */
+    @Override
+    @Transactional
+    public int saveAll(List<Hotel> hotels) {
+        log.info("Saving chunk of {} hotels", hotels.size());
+
+        val entities = hotels.stream()
+                .map(hotel -> new HotelEntity(hotel.name(), hotel.location(), hotel.rating()))
+                .toList();
+        jpaRepo.saveAll(entities);
+        entityManager.flush();
+        entityManager.clear();
+        versionCounter.incrementAfterCommit();
+
+        return entities.size();
+    }
+
     /**
      * Find all hotels.
-     * This method will convert the list of {@link HotelEntity} to a list of {@link Hotel} models.
+     * The {@link Hotel} models are projected directly by the query in a read-only transaction,
+     * so no {@link HotelEntity} is loaded into the persistence context.
      *
      * @return List of {@link Hotel} model classes.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Hotel> findAll() {
         log.info("Fetching all hotels");
 
-        return jpaRepo.findAll().stream()
+        return jpaRepo.findAllProjected();
+    }
+
+    /**
+     * Find a page of hotels using keyset pagination.
+     * The hotels are ordered by id, and the page starts after the given cursor.
+     * One extra row is fetched to determine whether there is a next page.
+     *
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of hotels on the page.
+     * @return {@link CursorPage} of {@link Hotel} model classes.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Hotel> findPage(UUID after, int limit) {
+        log.info("Fetching page of hotels after: {}, limit: {}", after, limit);
+
+        val entities = after == null
+                ? jpaRepo.findAllByOrderByIdAsc(Limit.of(limit + 1))
+                : jpaRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1));
+
+        val hasNext = entities.size() > limit;
+        val page = hasNext ? entities.subList(0, limit) : entities;
+        val items = page.stream()
                 .map(entity -> new Hotel(
                         entity.getName(),
                         entity.getLocation(),
                         entity.getRating()
                 ))
                 .toList();
+
+        return new CursorPage<>(items, hasNext ? page.getLast().getId() : null);
+    }
+
+    /**
+     * Search hotels by the given criteria using keyset pagination.
+     * The query is built with the criteria API so that only the given criteria are part of
+     * the where clause. This way the database can use the composite index matching the criteria,
+     * which it cannot do for a single query where each criterion may or may not be null.
+     * The columns of the {@link Hotel} models are projected directly by the query in a read-only transaction.
+     * <p>
+     * The matches are ordered by id, so the result is deterministic, and one more row than the limit
+     * is fetched to know whether there is another page. The id of the last match on the page is the
+     * cursor of the next page, so a search is never silently truncated at the limit.
+     *
+     * @param location  Location of the hotels, or null to match any location.
+     * @param minRating Minimum rating of the hotels, or null to match any rating.
+     * @param after     Cursor of the previous page, or null to get the first page.
+     * @param limit     Maximum number of hotels on the page.
+     * @return {@link CursorPage} of {@link Hotel} model classes.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Hotel> search(String location, Double minRating, UUID after, int limit) {
+        log.info("Searching hotels with location: {}, minimum rating: {}, after: {}", location, minRating, after);
+
+        val builder = entityManager.getCriteriaBuilder();
+        val query = builder.createTupleQuery();
+        val hotel = query.from(HotelEntity.class);
+        val id = hotel.<UUID>get("id");
+
+        val predicates = new ArrayList<Predicate>();
+        if (location != null) {
+            predicates.add(builder.equal(hotel.get("location"), location));
+        }
+        if (minRating != null) {
+            predicates.add(builder.greaterThanOrEqualTo(hotel.<Double>get("rating"), minRating));
+        }
+        if (after != null) {
+            predicates.add(builder.greaterThan(id, after));
+        }
+
+        query.multiselect(
+                        id.alias("id"),
+                        hotel.get("name").alias("name"),
+                        hotel.get("location").alias("location"),
+                        hotel.get("rating").alias("rating")
+                )
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.asc(id));
+
+        val rows = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        val hasNext = rows.size() > limit;
+        val page = hasNext ? rows.subList(0, limit) : rows;
+        val items = page.stream()
+                .map(row -> new Hotel(
+                        row.get("name", String.class),
+                        row.get("location", String.class),
+                        row.get("rating", Double.class)
+                ))
+                .toList();
+
+        return new CursorPage<>(items, hasNext ? page.getLast().get("id", UUID.class) : null);
+    }
+
+    /**
+     * Get the version of the hotel table.
+     * The version is advanced after every save through this repository has committed.
+     *
+     * @return {@link TableVersion} of the hotel table.
+     */
+    @Override
+    public TableVersion version() {
+        return versionCounter.get();
     }
 }
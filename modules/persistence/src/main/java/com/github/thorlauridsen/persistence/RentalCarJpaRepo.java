@@ -1,12 +1,51 @@
 package com.github.thorlauridsen.persistence;
 
+import com.github.thorlauridsen.model.RentalCar;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * Rental car repository interface.
  * This is a JPA repository for the {@link RentalCarEntity}.
  * It extends the {@link JpaRepository} interface which allows us to easily define CRUD methods.
+ * The read queries are marked as cacheable, so their results are served from
+ * the query cache when the second-level cache is enabled.
  */
 public interface RentalCarJpaRepo extends JpaRepository<RentalCarEntity, UUID> {
+
+    /**
+     * Find the first rental cars ordered by id.
+     *
+     * @param limit Maximum number of rental cars to find.
+     * @return List of {@link RentalCarEntity}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<RentalCarEntity> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Find the rental cars with an id greater than the given id ordered by id.
+     *
+     * @param id    The id to start after.
+     * @param limit Maximum number of rental cars to find.
+     * @return List of {@link RentalCarEntity}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<RentalCarEntity> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Find all rental cars projected directly into the {@link RentalCar} model.
+     * The constructor expression means that no {@link RentalCarEntity} is instantiated,
+     * so nothing is added to the persistence context or tracked for dirty checking.
+     *
+     * @return List of {@link RentalCar}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.github.thorlauridsen.model.RentalCar(r.company, r.carModel, r.location) from RentalCarEntity r")
+    List<RentalCar> findAllProjected();
 }
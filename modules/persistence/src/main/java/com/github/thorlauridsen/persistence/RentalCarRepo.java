@@ -1,12 +1,21 @@
 package com.github.thorlauridsen.persistence;
 
+import com.github.thorlauridsen.model.CursorPage;
 import com.github.thorlauridsen.model.IRentalCarRepo;
+import com.github.thorlauridsen.model.TableVersion;
 import com.github.thorlauridsen.model.RentalCar;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Rental car repository facade class.
@@ -17,6 +26,10 @@ import org.springframework.stereotype.Repository;
  * <p>
  * It is annotated with {@link Repository} to allow Spring to automatically
  * detect it as a bean and inject it where needed.
+ * <p>
+ * When the query cache is enabled, every save goes through Hibernate, which records
+ * the time the table was written. Cached query results of rental cars from before that time
+ * are treated as stale, so a write is visible to the next read without an explicit eviction.
  */
 @Repository
 @RequiredArgsConstructor
@@ -24,6 +37,8 @@ import org.springframework.stereotype.Repository;
 public class RentalCarRepo implements IRentalCarRepo {
 
     private final RentalCarJpaRepo jpaRepo;
+    private final EntityManager entityManager;
+    private final VersionCounter versionCounter = new VersionCounter();
 
     /**
      * Save a rental car.
@@ -44,6 +59,7 @@ public class RentalCarRepo implements IRentalCarRepo {
         val saved = jpaRepo.save(entity);
 
         log.info("Rental car saved with id: {}", saved.getId());
+        versionCounter.incrementAfterCommit();
 
         return new RentalCar(
                 saved.getCompany(),
@@ -52,22 +68,155 @@ public class RentalCarRepo implements IRentalCarRepo {
         );
     }
 
+    /**
+     * Save a chunk of rental cars in a single transaction.
+     * The entities are inserted with JDBC batching, so the inserts are sent to the database
+     * in batches of the configured Hibernate batch size instead of one round trip per row.
+     * The chunk is flushed and the persistence context is cleared before returning, so memory
+     * usage is bounded by the size of the chunk even if the caller shares the persistence context.
+     *
+     * @param rentalCars List of input objects for creating rental cars.
+     * @return Number of saved rental cars.
+     */
+    @Override
+    @Transactional
+    public int saveAll(List<RentalCar> rentalCars) {
+        log.info("Saving chunk of {} rental cars", rentalCars.size());
+
+        val entities = rentalCars.stream()
+                .map(rentalCar -> new RentalCarEntity(
+                        rentalCar.company(),
+                        rentalCar.carModel(),
+                        rentalCar.location()
+                ))
+                .toList();
+        jpaRepo.saveAll(entities);
+        entityManager.flush();
+        entityManager.clear();
+        versionCounter.incrementAfterCommit();
+
+        return entities.size();
+    }
+
     /**
      * Find all rental cars.
-     * This method will convert the list of {@link RentalCarEntity} to a list of {@link RentalCar} models.
+     * The {@link RentalCar} models are projected directly by the query in a read-only transaction,
+     * so no {@link RentalCarEntity} is loaded into the persistence context.
      *
      * @return List of {@link RentalCar} model classes.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<RentalCar> findAll() {
         log.info("Fetching all rental cars");
 
-        return jpaRepo.findAll().stream()
+        return jpaRepo.findAllProjected();
+    }
+
+    /**
+     * Find a page of rental cars using keyset pagination.
+     * The rental cars are ordered by id, and the page starts after the given cursor.
+     * One extra row is fetched to determine whether there is a next page.
+     *
+     * @param after Cursor of the previous page, or null to get the first page.
+     * @param limit Maximum number of rental cars on the page.
+     * @return {@link CursorPage} of {@link RentalCar} model classes.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<RentalCar> findPage(UUID after, int limit) {
+        log.info("Fetching page of rental cars after: {}, limit: {}", after, limit);
+
+        val entities = after == null
+                ? jpaRepo.findAllByOrderByIdAsc(Limit.of(limit + 1))
+                : jpaRepo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit + 1));
+
+        val hasNext = entities.size() > limit;
+        val page = hasNext ? entities.subList(0, limit) : entities;
+        val items = page.stream()
                 .map(entity -> new RentalCar(
                         entity.getCompany(),
                         entity.getCarModel(),
                         entity.getLocation()
                 ))
                 .toList();
+
+        return new CursorPage<>(items, hasNext ? page.getLast().getId() : null);
+    }
+
+    /**
+     * Search rental cars by the given criteria using keyset pagination.
+     * The query is built with the criteria API so that only the given criteria are part of
+     * the where clause. This way the database can use the composite index matching the criteria,
+     * which it cannot do for a single query where each criterion may or may not be null.
+     * The columns of the {@link RentalCar} models are projected directly by the query in a read-only transaction.
+     * <p>
+     * The matches are ordered by id, so the result is deterministic, and one more row than the limit
+     * is fetched to know whether there is another page. The id of the last match on the page is the
+     * cursor of the next page, so a search is never silently truncated at the limit.
+     *
+     * @param location Location of the rental cars, or null to match any location.
+     * @param company  Company of the rental cars, or null to match any company.
+     * @param after    Cursor of the previous page, or null to get the first page.
+     * @param limit    Maximum number of rental cars on the page.
+     * @return {@link CursorPage} of {@link RentalCar} model classes.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<RentalCar> search(String location, String company, UUID after, int limit) {
+        log.info("Searching rental cars with location: {}, company: {}, after: {}", location, company, after);
+
+        val builder = entityManager.getCriteriaBuilder();
+        val query = builder.createTupleQuery();
+        val rentalCar = query.from(RentalCarEntity.class);
+        val id = rentalCar.<UUID>get("id");
+
+        val predicates = new ArrayList<Predicate>();
+        if (location != null) {
+            predicates.add(builder.equal(rentalCar.get("location"), location));
+        }
+        if (company != null) {
+            predicates.add(builder.equal(rentalCar.get("company"), company));
+        }
+        if (after != null) {
+            predicates.add(builder.greaterThan(id, after));
+        }
+
+        query.multiselect(
+                        id.alias("id"),
+                        rentalCar.get("company").alias("company"),
+                        rentalCar.get("carModel").alias("carModel"),
+                        rentalCar.get("location").alias("location")
+                )
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.asc(id));
+
+        val rows = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        val hasNext = rows.size() > limit;
+        val page = hasNext ? rows.subList(0, limit) : rows;
+        val items = page.stream()
+                .map(row -> new RentalCar(
+                        row.get("company", String.class),
+                        row.get("carModel", String.class),
+                        row.get("location", String.class)
+                ))
+                .toList();
+
+        return new CursorPage<>(items, hasNext ? page.getLast().get("id", UUID.class) : null);
+    }
+
+    /**
+     * Get the version of the rental car table.
+     * The version is advanced after every save through this repository has committed.
+     *
+     * @return {@link TableVersion} of the rental car table.
+     */
+    @Override
+    public TableVersion version() {
+        return versionCounter.get();
     }
 }
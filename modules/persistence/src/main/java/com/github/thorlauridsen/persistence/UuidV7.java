@@ -0,0 +1,21 @@
+package com.github.thorlauridsen.persistence;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generate the id of an entity as a time-ordered UUID version 7 with {@link UuidV7Generator}.
+ * <p>
+ * Random UUIDs are inserted at random positions in the primary key index, so a bulk load
+ * touches every page of the index and causes page splits throughout it. A time-ordered UUID
+ * is always inserted at the end of the index, which keeps the recently written pages in memory
+ * and leaves the index more densely packed.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,80 @@
+package com.github.thorlauridsen.persistence;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.val;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+/**
+ * Generator of UUID version 7 ids as defined in RFC 9562.
+ * <p>
+ * The 48 most significant bits hold the Unix timestamp in milliseconds,
+ * followed by the version and a 12-bit counter which orders the ids generated
+ * within the same millisecond. The remaining 62 bits after the variant are random.
+ * <p>
+ * The timestamp and counter are advanced together in a single atomic value, so the ids
+ * generated by this JVM are strictly increasing even if the clock moves backwards.
+ * If more than 4096 ids are generated in a millisecond, the counter overflows into
+ * the timestamp, which then runs slightly ahead of the clock until it catches up.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /**
+     * Generate the next UUID version 7.
+     *
+     * @return Time-ordered {@link UUID}.
+     */
+    public static UUID next() {
+        val now = System.currentTimeMillis() << COUNTER_BITS;
+        val current = LAST.updateAndGet(last -> Math.max(last + 1, now));
+
+        val timestamp = current >>> COUNTER_BITS;
+        val counter = current & COUNTER_MASK;
+        val mostSignificant = timestamp << 16 | VERSION | counter;
+        val leastSignificant = ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Generate the id of an entity which is about to be inserted.
+     *
+     * @param session      The session which inserts the entity.
+     * @param owner        The entity which is inserted.
+     * @param currentValue The current id of the entity, which is ignored.
+     * @param eventType    The event, which is always an insert.
+     * @return Time-ordered {@link UUID}.
+     */
+    @Override
+    public Object generate(
+            SharedSessionContractImplementor session,
+            Object owner,
+            Object currentValue,
+            EventType eventType
+    ) {
+        return next();
+    }
+
+    /**
+     * Ids are only generated when an entity is inserted.
+     *
+     * @return {@link EventTypeSets#INSERT_ONLY}.
+     */
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
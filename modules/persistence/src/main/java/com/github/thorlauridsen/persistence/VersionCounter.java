@@ -0,0 +1,67 @@
+package com.github.thorlauridsen.persistence;
+
+import com.github.thorlauridsen.model.TableVersion;
+import java.time.Instant;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Counter of the writes to a table, which is exposed as a {@link TableVersion}.
+ * <p>
+ * The entity tag is made of the time the counter was created and the number of writes,
+ * so a restarted provider never reuses an entity tag of a previous run.
+ * The counter only sees writes made through the repository of this process.
+ * Rows written directly to the database, or by another instance of the provider,
+ * do not change the version.
+ */
+class VersionCounter {
+
+    private final long createdAt = System.currentTimeMillis();
+    private long writes;
+    private volatile TableVersion current = new TableVersion(etag(0), Instant.ofEpochMilli(createdAt));
+
+    /**
+     * Get the current version of the table.
+     *
+     * @return {@link TableVersion} of the table.
+     */
+    TableVersion get() {
+        return current;
+    }
+
+    /**
+     * Advance the version once the current transaction has committed, or immediately if there is none.
+     * A reader never sees the new version before the written rows are visible, so it cannot
+     * pair the new version with the rows from before the write.
+     */
+    void incrementAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment();
+            }
+        });
+    }
+
+    /**
+     * Advance the version.
+     */
+    private synchronized void increment() {
+        writes++;
+        current = new TableVersion(etag(writes), Instant.now());
+    }
+
+    /**
+     * Format the entity tag for a number of writes.
+     *
+     * @param writes Number of writes to the table.
+     * @return Quoted entity tag.
+     */
+    private String etag(long writes) {
+        return "\"" + Long.toString(createdAt, 36) + "-" + writes + "\"";
+    }
+}
@@ -0,0 +1,22 @@
+import org.springframework.boot.gradle.tasks.bundling.BootJar
+import org.springframework.boot.gradle.tasks.run.BootRun
+
+plugins {
+    alias(local.plugins.lombok)
+    alias(local.plugins.springboot)
+    alias(local.plugins.spring.dependencies)
+}
+
+dependencies {
+    // Spring Boot dependencies for the servlet filter and the client interceptor
+    implementation(local.springboot.starter.webmvc)
+}
+
+// Disabling bootJar and bootRun is necessary for a subproject/module
+// that uses the Spring Boot plugin but is not supposed to be executable.
+tasks.named<BootJar>("bootJar") {
+    enabled = false
+}
+tasks.named<BootRun>("bootRun") {
+    enabled = false
+}
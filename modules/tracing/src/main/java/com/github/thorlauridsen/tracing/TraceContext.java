@@ -0,0 +1,105 @@
+package com.github.thorlauridsen.tracing;
+
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.val;
+
+/**
+ * Trace context of a single span following the W3C Trace Context specification.
+ * <p>
+ * The context is propagated between services in the traceparent header,
+ * which has the format: {version}-{trace-id}-{parent-id}-{trace-flags}.
+ * For example: 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01
+ *
+ * @param traceId  Id of the trace as 32 lower case hex characters.
+ * @param spanId   Id of the span as 16 lower case hex characters.
+ * @param parentId Id of the parent span, or null if this is a root span.
+ * @param sampled  Whether the trace is sampled.
+ */
+public record TraceContext(
+        String traceId,
+        String spanId,
+        String parentId,
+        boolean sampled
+) {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final String VERSION = "00";
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+
+    /**
+     * Create the root span of a new trace.
+     *
+     * @return {@link TraceContext} with a new trace id and no parent.
+     */
+    public static TraceContext root() {
+        val random = ThreadLocalRandom.current();
+        val traceId = HEX.toHexDigits(random.nextLong()) + HEX.toHexDigits(random.nextLong());
+        return new TraceContext(traceId, newSpanId(), null, true);
+    }
+
+    /**
+     * Create a child span of this span in the same trace.
+     *
+     * @return {@link TraceContext} with a new span id and this span as the parent.
+     */
+    public TraceContext child() {
+        return new TraceContext(traceId, newSpanId(), spanId, sampled);
+    }
+
+    /**
+     * Get the traceparent header value for this span.
+     *
+     * @return The traceparent header value.
+     */
+    public String traceparent() {
+        return VERSION + "-" + traceId + "-" + spanId + "-" + (sampled ? "01" : "00");
+    }
+
+    /**
+     * Parse a traceparent header value.
+     * The span id in the header is the id of the span in the calling service,
+     * so the returned context should be used as the parent of a new span.
+     *
+     * @param traceparent The traceparent header value, may be null.
+     * @return Optional with the {@link TraceContext}, or an empty optional if the value is missing or invalid.
+     */
+    public static Optional<TraceContext> parse(String traceparent) {
+        if (traceparent == null) {
+            return Optional.empty();
+        }
+        val parts = traceparent.trim().split("-");
+        if (parts.length < 4
+                || !isHex(parts[0], 2) || parts[0].equals("ff")
+                || !isHex(parts[1], 32) || parts[1].equals(INVALID_TRACE_ID)
+                || !isHex(parts[2], 16) || parts[2].equals(INVALID_SPAN_ID)
+                || !isHex(parts[3], 2)) {
+            return Optional.empty();
+        }
+        val sampled = (HEX.fromHexDigits(parts[3]) & 1) == 1;
+        return Optional.of(new TraceContext(parts[1], parts[2], null, sampled));
+    }
+
+    private static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return HEX.toHexDigits(id);
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            val c = value.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
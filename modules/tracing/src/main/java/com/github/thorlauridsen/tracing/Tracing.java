@@ -0,0 +1,132 @@
+package com.github.thorlauridsen.tracing;
+
+import java.time.Instant;
+import java.util.Optional;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.slf4j.MDC;
+
+/**
+ * Holds the current {@link TraceContext} and records spans.
+ * <p>
+ * The current context is held in a {@link ScopedValue} instead of a thread local.
+ * Subtasks forked in a {@link java.util.concurrent.StructuredTaskScope} inherit the
+ * scoped values of the thread which opened the scope, so the context of a request
+ * is available in every fork without any extra code. Threads which are started
+ * outside of a scope do not inherit it, so their tasks are wrapped with {@link #wrap(Runnable)}.
+ * <p>
+ * Each span is written as a log line when it ends with its trace id, span id,
+ * parent id, start time and duration. The log lines of the gateway and the provider
+ * can be grouped by trace id and ordered by start time to show the waterfall of a request.
+ * The trace id and span id are also put in the MDC while a span is running,
+ * so every other log line within the span can be correlated with it.
+ */
+@Slf4j
+@UtilityClass
+public class Tracing {
+
+    public static final String TRACEPARENT_HEADER = "traceparent";
+
+    private static final ScopedValue<TraceContext> CURRENT = ScopedValue.newInstance();
+
+    /**
+     * Get the context of the current span.
+     *
+     * @return Optional with the {@link TraceContext}, or an empty optional if there is no current span.
+     */
+    public static Optional<TraceContext> current() {
+        return CURRENT.isBound() ? Optional.of(CURRENT.get()) : Optional.empty();
+    }
+
+    /**
+     * Execute an operation in a new span.
+     * The span is a child of the current span, or the root of a new trace if there is no current span.
+     *
+     * @param name Name of the span.
+     * @param op   The operation to execute.
+     * @param <T>  The result type of the operation.
+     * @param <X>  The exception type of the operation.
+     * @return The result of the operation.
+     * @throws X If the operation fails.
+     */
+    public static <T, X extends Throwable> T span(String name, ScopedValue.CallableOp<T, X> op) throws X {
+        return span(name, current().map(TraceContext::child).orElseGet(TraceContext::root), op);
+    }
+
+    /**
+     * Execute an operation in the given span.
+     *
+     * @param name Name of the span.
+     * @param span {@link TraceContext} of the span.
+     * @param op   The operation to execute.
+     * @param <T>  The result type of the operation.
+     * @param <X>  The exception type of the operation.
+     * @return The result of the operation.
+     * @throws X If the operation fails.
+     */
+    public static <T, X extends Throwable> T span(String name, TraceContext span, ScopedValue.CallableOp<T, X> op) throws X {
+        val start = Instant.now();
+        val startNanos = System.nanoTime();
+        val previousTraceId = MDC.get("traceId");
+        val previousSpanId = MDC.get("spanId");
+        MDC.put("traceId", span.traceId());
+        MDC.put("spanId", span.spanId());
+        var outcome = "ok";
+        try {
+            return ScopedValue.where(CURRENT, span).call(op);
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            if (span.sampled()) {
+                log.info(
+                        "Span {} trace={} span={} parent={} start={} duration={}us outcome={}",
+                        name,
+                        span.traceId(),
+                        span.spanId(),
+                        span.parentId(),
+                        start,
+                        (System.nanoTime() - startNanos) / 1000,
+                        outcome
+                );
+            }
+            restore("traceId", previousTraceId);
+            restore("spanId", previousSpanId);
+        }
+    }
+
+    /**
+     * Wrap a task so that it runs with the current context.
+     * This is needed for tasks which run on a thread started outside of a
+     * {@link java.util.concurrent.StructuredTaskScope}, as the thread does not
+     * inherit the scoped values of the thread which started it.
+     *
+     * @param task The task to wrap.
+     * @return The wrapped task, or the task itself if there is no current span.
+     */
+    public static Runnable wrap(Runnable task) {
+        if (!CURRENT.isBound()) {
+            return task;
+        }
+        val context = CURRENT.get();
+        return () -> {
+            MDC.put("traceId", context.traceId());
+            MDC.put("spanId", context.spanId());
+            try {
+                ScopedValue.where(CURRENT, context).run(task);
+            } finally {
+                MDC.remove("traceId");
+                MDC.remove("spanId");
+            }
+        };
+    }
+
+    private static void restore(String key, String value) {
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value);
+        }
+    }
+}
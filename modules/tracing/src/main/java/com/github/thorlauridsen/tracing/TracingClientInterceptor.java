@@ -0,0 +1,31 @@
+package com.github.thorlauridsen.tracing;
+
+import java.io.IOException;
+import lombok.val;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Interceptor which executes every outgoing request in a client span.
+ * The traceparent header of the request is set to the client span,
+ * so the server span in the called service becomes a child of it.
+ * The client span ends when the response headers have been received.
+ */
+public class TracingClientInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request,
+            byte[] body,
+            ClientHttpRequestExecution execution
+    ) throws IOException {
+        val name = request.getMethod() + " " + request.getURI().getPath();
+        return Tracing.span(name, () -> {
+            Tracing.current().ifPresent(span ->
+                    request.getHeaders().set(Tracing.TRACEPARENT_HEADER, span.traceparent()));
+            return execution.execute(request, body);
+        });
+    }
+}
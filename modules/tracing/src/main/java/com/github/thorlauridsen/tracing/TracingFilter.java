@@ -0,0 +1,46 @@
+package com.github.thorlauridsen.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.val;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Servlet filter which executes every incoming request in a server span.
+ * <p>
+ * If the request has a valid traceparent header, the server span continues the trace
+ * of the caller. Otherwise, the server span is the root of a new trace.
+ * The filter runs first, so the span covers every other filter and the handler.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+        val span = TraceContext.parse(request.getHeader(Tracing.TRACEPARENT_HEADER))
+                .map(TraceContext::child)
+                .orElseGet(TraceContext::root);
+        val name = request.getMethod() + " " + request.getRequestURI();
+        try {
+            Tracing.span(name, span, () -> {
+                chain.doFilter(request, response);
+                return null;
+            });
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+}